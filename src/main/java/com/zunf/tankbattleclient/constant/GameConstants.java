@@ -27,16 +27,11 @@ public interface GameConstants {
     Color DESTROYED_WALL_COLOR = EMPTY_COLOR;            // 被摧毁的墙：同空地色
     Color UNKNOWN_COLOR = Color.WHITE;                   // 未知类型：白色（便于调试）
 
-    // ========== 动画速度 ==========
+    // ========== 快照插值 ==========
     /**
-     * 坦克动画移动速度 px/帧
+     * 插值时相邻两个快照的距离超过该值（px）视为复活或传送，直接跳到新位置
      */
-    double TANK_ANIMATION_SPEED = 1;
-
-    /**
-     * 子弹动画移动速度 px/帧
-     */
-    double BULLET_ANIMATION_SPEED = 3;
+    double INTERPOLATION_SNAP_DISTANCE = CELL_SIZE * 3;
 
     // ========== 动画持续时间 ==========
     /**
@@ -60,6 +55,11 @@ public interface GameConstants {
      */
     double TANK_BASE_SIZE_RATIO = 0.8;
 
+    /**
+     * 坦克碰撞盒半边长（像素），本地预测撞墙检测使用
+     */
+    double TANK_COLLISION_HALF_SIZE = CELL_SIZE * TANK_BASE_SIZE_RATIO / 2;
+
     /**
      * 坦克长边比例（相对于baseSize）
      */
@@ -105,12 +105,6 @@ public interface GameConstants {
      */
     double HEALTH_BAR_OFFSET_Y = 8;
 
-    // ========== 按键重复 ==========
-    /**
-     * 按键重复间隔（毫秒）
-     */
-    long KEY_REPEAT_INTERVAL = 50;
-
     // ========== 动画插值 ==========
     /**
      * 血条动画插值速度
@@ -31,4 +31,9 @@ public interface ProtocolConstant {
     int REQUEST_ID_FIELD_OFFSET = OPERATION_TYPE_FIELD_LENGTH + VERSION_FIELD_LENGTH;
     int BODY_LENGTH_FIELD_OFFSET = OPERATION_TYPE_FIELD_LENGTH + VERSION_FIELD_LENGTH + REQUEST_ID_FIELD_LENGTH;
     int CRC32_FIELD_OFFSET = OPERATION_TYPE_FIELD_LENGTH + VERSION_FIELD_LENGTH + REQUEST_ID_FIELD_LENGTH + BODY_LENGTH_FIELD_LENGTH;
+
+    /**
+     * 协议体最大长度，超过则认为是非法帧
+     */
+    int MAX_BODY_LENGTH = 10_000_000;
 }
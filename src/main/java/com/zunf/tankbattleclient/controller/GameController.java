@@ -1,16 +1,24 @@
 package com.zunf.tankbattleclient.controller;
 
-import com.google.protobuf.ByteString;
 import com.zunf.tankbattleclient.TankBattleApplication;
 import com.zunf.tankbattleclient.constant.GameConstants;
 import com.zunf.tankbattleclient.enums.GameMsgType;
 import com.zunf.tankbattleclient.enums.Direction;
+import com.zunf.tankbattleclient.enums.LogCategory;
 import com.zunf.tankbattleclient.enums.MatchEndReason;
 import com.zunf.tankbattleclient.enums.ViewEnum;
+import com.zunf.tankbattleclient.handler.BulletSimulator;
+import com.zunf.tankbattleclient.handler.EntityStore;
+import com.zunf.tankbattleclient.handler.GameLoop;
+import com.zunf.tankbattleclient.handler.RenderClock;
+import com.zunf.tankbattleclient.handler.TankPredictor;
+import com.zunf.tankbattleclient.manager.ConfigManager;
 import com.zunf.tankbattleclient.manager.GameConnectionManager;
 import com.zunf.tankbattleclient.manager.UserInfoManager;
 import com.zunf.tankbattleclient.manager.ViewManager;
 import com.zunf.tankbattleclient.model.bo.BulletState;
+import com.zunf.tankbattleclient.model.bo.CoalescedTick;
+import com.zunf.tankbattleclient.model.bo.GameMap;
 import com.zunf.tankbattleclient.model.bo.TankState;
 import com.zunf.tankbattleclient.protobuf.CommonProto;
 import com.zunf.tankbattleclient.protobuf.game.match.MatchProto;
@@ -18,8 +26,8 @@ import com.zunf.tankbattleclient.protobuf.game.room.GameRoomProto;
 import com.zunf.tankbattleclient.util.AnimationHandler;
 import com.zunf.tankbattleclient.util.CanvasScaler;
 import com.zunf.tankbattleclient.util.GameRenderer;
-import com.zunf.tankbattleclient.util.KeyRepeatHandler;
-import com.zunf.tankbattleclient.util.MapDataProcessor;
+import com.zunf.tankbattleclient.util.InputSampler;
+import com.zunf.tankbattleclient.util.Log;
 import com.zunf.tankbattleclient.manager.SoundManager;
 import javafx.animation.AnimationTimer;
 import javafx.fxml.FXML;
@@ -83,19 +91,23 @@ public class GameController extends ViewLifecycle {
     private boolean isFirstTick = true;
 
     // 游戏状态
-    private Map<Long, TankState> tanks = new HashMap<>(); // playerId -> TankState
-    private Map<String, BulletState> bullets = new HashMap<>(); // bulletId -> BulletState
-    private byte[][] previousMapData; // 上一帧的地图数据
+    private final EntityStore<TankState> tanks = createTankStore(); // (playerId, 0) -> TankState
+    private final EntityStore<BulletState> bullets = new EntityStore<>(256, BulletState::new); // (playerId, bulletId) -> BulletState
+    private final GameMap gameMap = new GameMap(); // 当前地图，按格子变化就地更新
+    private final RenderClock renderClock = new RenderClock(ConfigManager.getInstance().getInterpolationDelayMs()); // 落后服务端时间一个插值延迟
+    private TankPredictor predictor; // 自己坦克的本地预测，未开启或还没收到自己的坦克时为 null
+    private final BulletSimulator bulletSimulator = createBulletSimulator(); // 子弹本地推算，未开启时为 null
     private Map<String, Long> destroyedBrickAnimations = new HashMap<>(); // 正在播放摧毁动画的砖块位置 -> 动画开始时间
 
     // UI组件
     private CanvasScaler canvasScaler;
     private AnimationTimer animationTimer;
-    private Consumer<com.google.protobuf.MessageLite> tickListener;
+    private GameLoop gameLoop; // 固定步长推进模拟，AnimationTimer 只负责驱动
+    private Consumer<CoalescedTick> tickListener;
 
     // 按键处理
     private final Set<KeyCode> pressedKeys = new HashSet<>();
-    private KeyRepeatHandler keyRepeatHandler;
+    private InputSampler inputSampler;
     private EventHandler<KeyEvent> escKeyHandler;
     private EventHandler<KeyEvent> gameKeyHandler;
     private EventHandler<KeyEvent> gameKeyReleasedHandler;
@@ -123,8 +135,8 @@ public class GameController extends ViewLifecycle {
             loadStylesheet();
             setupWindowAspectRatio();
             initializeCanvas();
-            initializePreviousMapData();
-            renderGame();
+            gameMap.load(gameData.getMapDataList(), null, nowMs());
+            renderGame(1.0);
             initEscKeyListener();
             initGameKeyListener();
             registerTickListener();
@@ -171,9 +183,11 @@ public class GameController extends ViewLifecycle {
 
         // 清理状态
         tanks.clear();
+        predictor = null;
         bullets.clear();
         destroyedBrickAnimations.clear();
-        previousMapData = null;
+        gameMap.clear();
+        renderClock.reset();
         gameData = null;
         isFirstTick = true;
         isGameOver = false;
@@ -222,7 +236,7 @@ public class GameController extends ViewLifecycle {
         }
 
         canvasScaler = new CanvasScaler(gameCanvas, gameContainer);
-        canvasScaler.setOnScaleChanged(v -> renderGame());
+        canvasScaler.setOnScaleChanged(v -> renderGame(1.0));
         canvasScaler.initialize();
     }
 
@@ -252,7 +266,7 @@ public class GameController extends ViewLifecycle {
                     stage.setHeight(newWidth.doubleValue() + decorationHeight);
                 }
             } catch (Exception e) {
-                System.err.println("Error adjusting aspect ratio: " + e.getMessage());
+                Log.warn(LogCategory.GAME, "Error adjusting aspect ratio: {}", e.getMessage());
             } finally {
                 adjustingAspectRatio = false;
             }
@@ -272,7 +286,7 @@ public class GameController extends ViewLifecycle {
                         stage.setHeight(targetSize + decorationHeight);
                     }
                 } catch (Exception e) {
-                    System.err.println("Error initializing aspect ratio: " + e.getMessage());
+                    Log.warn(LogCategory.GAME, "Error initializing aspect ratio: {}", e.getMessage());
                 } finally {
                     adjustingAspectRatio = false;
                 }
@@ -280,13 +294,6 @@ public class GameController extends ViewLifecycle {
         });
     }
 
-    /**
-     * 初始化previousMapData
-     */
-    private void initializePreviousMapData() {
-        previousMapData = MapDataProcessor.initializePreviousMapData(gameData);
-    }
-
     /**
      * 加载CSS样式表
      */
@@ -376,14 +383,14 @@ public class GameController extends ViewLifecycle {
                     } else {
                         // 响应失败，显示错误信息（可选）
                         String errorMsg = baseResponse != null ? baseResponse.getMessage() : "离开游戏失败";
-                        System.err.println("离开游戏失败: " + errorMsg);
+                        Log.warn(LogCategory.GAME, "离开游戏失败: {}", errorMsg);
                         // 即使失败也返回大厅（可选，根据业务需求决定）
                         ViewManager.getInstance().show(ViewEnum.LOBBY);
                     }
                 })
                 .exceptionally(throwable -> {
                     // 处理异常（超时或其他错误）
-                    System.err.println("离开游戏请求异常: " + throwable.getMessage());
+                    Log.warn(LogCategory.GAME, "离开游戏请求异常: {}", throwable.getMessage());
                     // 即使异常也返回大厅（可选，根据业务需求决定）
                     ViewManager.getInstance().show(ViewEnum.LOBBY);
                     return null;
@@ -442,13 +449,11 @@ public class GameController extends ViewLifecycle {
      */
     private void registerTickListener() {
         GameConnectionManager connectionManager = GameConnectionManager.getInstance();
-        tickListener = (message) -> {
-            if (message instanceof MatchProto.Tick) {
-                MatchProto.Tick tick = (MatchProto.Tick) message;
-                handleTick(tick);
-            }
-        };
-        connectionManager.listenMessage(GameMsgType.GAME_TICK, tickListener);
+        // 使用合并后的 Tick：UI 线程落后时只处理最新一帧，被跳过帧中的受击等事件会合并进来
+        // 按房间监听，其他房间的 Tick 在解析前就被丢弃
+        tickListener = this::handleTick;
+        connectionManager.listenTick(roomId, tickListener);
+        connectionManager.setActiveMatch(roomId);
     }
 
     /**
@@ -457,7 +462,9 @@ public class GameController extends ViewLifecycle {
     private void unregisterTickListener() {
         if (tickListener != null) {
             GameConnectionManager connectionManager = GameConnectionManager.getInstance();
-            connectionManager.removeListener(GameMsgType.GAME_TICK, tickListener);
+            connectionManager.removeTickListener(tickListener);
+            connectionManager.clearTicks(roomId);
+            connectionManager.clearActiveMatch();
             tickListener = null;
         }
     }
@@ -465,7 +472,12 @@ public class GameController extends ViewLifecycle {
     /**
      * 处理Tick消息
      */
-    private void handleTick(MatchProto.Tick tick) {
+    private void handleTick(CoalescedTick batch) {
+        MatchProto.Tick tick = batch.tick();
+        // 服务端没带时间戳时退化为按本地收到时间插值
+        long serverTime = tick.getTickTimeStamp() > 0 ? tick.getTickTimeStamp() : System.currentTimeMillis();
+        renderClock.onServerTime(serverTime, nowMs());
+
         // 检查游戏是否结束
         if (tick.getIsGameOver() && !isGameOver) {
             isGameOver = true;
@@ -474,16 +486,18 @@ public class GameController extends ViewLifecycle {
         }
 
         // 更新坦克状态
-        updateTanks(tick);
+        updateTanks(tick, serverTime, batch.hitPlayerIds());
 
         // 更新子弹状态
-        updateBullets(tick);
+        updateBullets(tick, serverTime);
 
-        // 更新地图数据
+        // 更新地图数据：整张地图只在开局和重同步时出现，平时只有格子变化
+        Map<String, Long> destroyed = isFirstTick ? null : destroyedBrickAnimations;
         if (tick.getMapDataCount() > 0) {
-            updateMapData(tick.getMapDataList());
-        } else if (isFirstTick && gameData != null && gameData.getMapDataCount() > 0) {
-            initializePreviousMapData();
+            gameMap.load(tick.getMapDataList(), destroyed, nowMs());
+        }
+        if (tick.getMapChangesCount() > 0) {
+            gameMap.apply(tick.getMapChangesList(), destroyed, nowMs());
         }
 
         isFirstTick = false;
@@ -492,29 +506,41 @@ public class GameController extends ViewLifecycle {
     /**
      * 更新坦克状态
      */
-    private void updateTanks(MatchProto.Tick tick) {
+    private void updateTanks(MatchProto.Tick tick, long serverTime, Set<Long> hitPlayerIds) {
+        Long myPlayerId = UserInfoManager.getInstance().getPlayerId();
+        tanks.beginGeneration();
         for (MatchProto.Tank tank : tick.getTanksList()) {
             long playerId = tank.getPlayerId();
             double x = tank.getX();
             double y = tank.getY();
-            Direction direction = Direction.values()[tank.getDirection()];
+            Direction direction = Direction.of(tank.getDirection());
             int life = tank.getLife();
 
-            TankState state = tanks.computeIfAbsent(playerId, k -> new TankState());
+            int index = tanks.indexOf(playerId, 0);
+            boolean isNew = index < 0;
+            if (isNew) {
+                index = tanks.add(playerId, 0);
+            } else {
+                tanks.touch(index);
+            }
+            TankState state = tanks.get(index);
+            if (isNew) {
+                state.reset();
+            }
 
-            // 检测方向变化（向左或向右转向）
-            Direction oldDirection = state.getDirection();
+            // 检测方向变化（向左或向右转向），与上一个服务端快照比较，而不是与插值中的显示方向比较
+            Direction oldDirection = isNew ? null : state.getSnapshots().newestDirection();
             boolean directionChangedToLeftOrRight = !isFirstTick
                     && oldDirection != null
                     && direction != oldDirection
                     && (direction == Direction.LEFT || direction == Direction.RIGHT);
 
-            // 检测血量变化，触发受击动画
+            // 检测血量变化，触发受击动画（包括在被合并跳过的 Tick 中受击）
             boolean isHitThisTick = false;
-            if (!isFirstTick && state.getLife() > life) {
+            if (!isFirstTick && (state.getLife() > life || hitPlayerIds.contains(playerId))) {
                 isHitThisTick = true;
                 state.setHit(true);
-                state.setHitAnimationStartTime(System.currentTimeMillis());
+                state.setHitAnimationStartTime(nowMs());
                 state.setPreviousLife(state.getLife());
 
                 // 如果是玩家自己的坦克受击，播放受击音效
@@ -527,7 +553,7 @@ public class GameController extends ViewLifecycle {
             // 如果满足显示血条的条件（受击或向左/向右转向），显示血条
             if (isHitThisTick || directionChangedToLeftOrRight) {
                 state.setShowHealthBar(true);
-                state.setHealthBarShowStartTime(System.currentTimeMillis());
+                state.setHealthBarShowStartTime(nowMs());
             }
 
             // 更新血量
@@ -539,92 +565,132 @@ public class GameController extends ViewLifecycle {
                 state.setPreviousLife(life);
             }
 
-            // 更新位置
-            if (isFirstTick) {
+            // 更新位置：记录快照，显示位置由渲染时钟插值得到
+            if (isFirstTick || isNew) {
+                state.getSnapshots().reset(serverTime, x, y, direction);
                 state.setCurrentX(x);
                 state.setCurrentY(y);
-                state.setTargetX(x);
-                state.setTargetY(y);
+                state.setDirection(direction);
+                state.storePrevious();
             } else {
-                if (state.getCurrentX() != x || state.getCurrentY() != y) {
-                    state.setTargetX(x);
-                    state.setTargetY(y);
-                    state.setAnimating(true);
-                }
+                state.getSnapshots().add(serverTime, x, y, direction);
+            }
+            state.setTargetX(x);
+            state.setTargetY(y);
+
+            if (myPlayerId != null && playerId == myPlayerId) {
+                updatePrediction(tank, direction);
             }
-            state.setDirection(direction);
         }
 
         // 移除不存在的坦克
-        tanks.entrySet()
-                .removeIf(entry -> tick.getTanksList().stream().noneMatch(t -> t.getPlayerId() == entry.getKey()));
+        tanks.sweep();
+    }
+
+    /**
+     * 用自己坦克的权威状态校正本地预测
+     */
+    private void updatePrediction(MatchProto.Tank tank, Direction direction) {
+        if (!ConfigManager.getInstance().isPredictionEnabled()) {
+            return;
+        }
+        long now = nowMs();
+        if (predictor == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            predictor = new TankPredictor(gameMap.getCollisionGrid(), config.getPredictionTankSpeed(),
+                    GameConstants.TANK_COLLISION_HALF_SIZE, config.getPredictionCorrectionMs(),
+                    GameConstants.INTERPOLATION_SNAP_DISTANCE);
+            predictor.reset(tank.getX(), tank.getY(), direction, now);
+            return;
+        }
+        // 权威状态大约是半个 RTT 之前的服务端状态
+        long oneWayMs = Math.round(GameConnectionManager.getInstance().getSmoothedRttMs() / 2);
+        predictor.reconcile(tank.getX(), tank.getY(), direction, tank.getLastInputSeq(), now - oneWayMs, now);
+    }
+
+    private EntityStore<TankState> createTankStore() {
+        EntityStore<TankState> store = new EntityStore<>(8, TankState::new);
+        store.addListener(new EntityStore.Listener<>() {
+            @Override
+            public void onDespawn(long playerId, long id, TankState state) {
+                // 自己的坦克消失（阵亡）后丢掉预测，重新出现时从服务端位置重新开始
+                Long myPlayerId = UserInfoManager.getInstance().getPlayerId();
+                if (myPlayerId != null && playerId == myPlayerId) {
+                    predictor = null;
+                }
+            }
+        });
+        return store;
+    }
+
+    private BulletSimulator createBulletSimulator() {
+        ConfigManager config = ConfigManager.getInstance();
+        if (!config.isBulletSimulationEnabled()) {
+            return null;
+        }
+        return new BulletSimulator(gameMap.getCollisionGrid(), config.getBulletSimulationSpeed(),
+                config.getBulletSimulationMaxExtrapolateMs());
+    }
+
+    /**
+     * 游戏时钟（毫秒），游戏循环未启动时退化为本地单调时钟
+     */
+    private long nowMs() {
+        return gameLoop != null ? gameLoop.timeMs() : System.nanoTime() / 1_000_000;
     }
 
     /**
      * 更新子弹状态
      */
-    private void updateBullets(MatchProto.Tick tick) {
-        Map<String, BulletState> newBullets = new HashMap<>();
+    private void updateBullets(MatchProto.Tick tick, long serverTime) {
+        bullets.beginGeneration();
         for (MatchProto.Bullet bullet : tick.getBulletsList()) {
-            String bulletId = bullet.getPlayerId() + "_" + bullet.getBulletId();
             double x = bullet.getX();
             double y = bullet.getY();
-            Direction direction = Direction.values()[bullet.getDirection()];
+            Direction direction = Direction.of(bullet.getDirection());
 
-            BulletState state = bullets.get(bulletId);
-            if (state == null) {
-                // 新增子弹，直接创建并设置位置，不启动动画
-                state = new BulletState();
-                state.setCurrentX(x);
-                state.setCurrentY(y);
-                state.setTargetX(x);
-                state.setTargetY(y);
-                state.setAnimating(false);
-            } else if (isFirstTick) {
-                // 第一个 tick直接设置位置
+            int index = bullets.indexOf(bullet.getPlayerId(), bullet.getBulletId());
+            boolean isNew = index < 0;
+            if (isNew) {
+                index = bullets.add(bullet.getPlayerId(), bullet.getBulletId());
+            } else {
+                bullets.touch(index);
+            }
+            BulletState state = bullets.get(index);
+            if (isNew || isFirstTick) {
+                // 新增子弹（或第一个 tick），直接放在当前位置，从下一个快照开始插值
+                state.getSnapshots().reset(serverTime, x, y, direction);
                 state.setCurrentX(x);
                 state.setCurrentY(y);
-                state.setTargetX(x);
-                state.setTargetY(y);
+                state.setDirection(direction);
+                state.storePrevious();
                 state.setAnimating(false);
+                state.setExpired(false);
+            } else if (bulletSimulator != null) {
+                bulletSimulator.onSnapshot(state, serverTime, x, y, direction);
             } else {
-                // 已存在的子弹，检查位置是否变化
-                if (state.getCurrentX() != x || state.getCurrentY() != y) {
-                    state.setTargetX(x);
-                    state.setTargetY(y);
-                    state.setAnimating(true);
-                } else {
-                    state.setAnimating(false);
-                }
+                state.getSnapshots().add(serverTime, x, y, direction);
             }
-            state.setDirection(direction);
-            newBullets.put(bulletId, state);
-        }
-        bullets = newBullets;
-    }
-
-    /**
-     * 更新地图数据
-     */
-    private void updateMapData(java.util.List<ByteString> mapDataList) {
-        previousMapData = MapDataProcessor.updateMapData(
-                mapDataList, previousMapData, destroyedBrickAnimations, isFirstTick);
-
-        // 更新gameData中的地图数据
-        if (gameData != null) {
-            gameData = MapDataProcessor.updateGameDataMap(gameData, mapDataList);
+            state.setTargetX(x);
+            state.setTargetY(y);
         }
+        bullets.sweep();
     }
 
     /**
      * 启动动画循环
      */
     private void startAnimationLoop() {
+        ConfigManager config = ConfigManager.getInstance();
+        gameLoop = new GameLoop(config.getGameLoopStepsPerSecond(), config.getGameLoopMaxFps(),
+                this::updateAnimations, this::renderGame);
         animationTimer = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                updateAnimations();
-                renderGame();
+                // 窗口最小化时不渲染，模拟照常推进
+                javafx.stage.Stage stage = ViewManager.getInstance().getStage();
+                gameLoop.setRenderPaused(stage != null && stage.isIconified());
+                gameLoop.frame(now);
             }
         };
         animationTimer.start();
@@ -638,21 +704,34 @@ public class GameController extends ViewLifecycle {
             animationTimer.stop();
             animationTimer = null;
         }
+        gameLoop = null;
     }
 
     /**
-     * 更新动画状态
+     * 推进一个模拟步：插值、预测、受击/血条/砖块动画计时
      */
-    private void updateAnimations() {
-        AnimationHandler.updateTankAnimations(tanks.values());
-        AnimationHandler.updateBulletAnimations(bullets.values());
-        AnimationHandler.cleanupBrickAnimations(destroyedBrickAnimations);
+    private void updateAnimations(long nowMs) {
+        long renderTime = renderClock.renderTime(nowMs);
+        AnimationHandler.updateTankAnimations(tanks, renderTime, nowMs);
+        // 自己的坦克显示预测位置，不走插值
+        Long myPlayerId = UserInfoManager.getInstance().getPlayerId();
+        TankState myTank = myPlayerId == null ? null : tanks.find(myPlayerId, 0);
+        if (myTank != null && predictor != null && predictor.isEnabled()) {
+            predictor.update(nowMs);
+            myTank.setCurrentX(predictor.getX());
+            myTank.setCurrentY(predictor.getY());
+            myTank.setDirection(predictor.getDirection());
+        }
+        AnimationHandler.updateBulletAnimations(bullets, renderTime, bulletSimulator);
+        AnimationHandler.cleanupBrickAnimations(destroyedBrickAnimations, nowMs);
     }
 
     /**
      * 渲染游戏（包括地图、坦克、子弹）
+     *
+     * @param alpha 在上一个模拟步和当前模拟步之间的插值位置
      */
-    private void renderGame() {
+    private void renderGame(double alpha) {
         if (gameCanvas == null) {
             return;
         }
@@ -661,21 +740,26 @@ public class GameController extends ViewLifecycle {
         gc.clearRect(0, 0, GameConstants.CANVAS_SIZE, GameConstants.CANVAS_SIZE);
 
         // 渲染地图
-        GameRenderer.renderMapBackground(gc, gameData, destroyedBrickAnimations);
+        long now = nowMs();
+        GameRenderer.renderMapBackground(gc, gameMap, destroyedBrickAnimations, now);
 
         // 渲染坦克
         Long myPlayerId = UserInfoManager.getInstance().getPlayerId();
-        for (Map.Entry<Long, TankState> entry : tanks.entrySet()) {
-            long playerId = entry.getKey();
-            TankState state = entry.getValue();
-            boolean isMyTank = myPlayerId != null && playerId == myPlayerId;
-            GameRenderer.renderTank(gc, state.getCurrentX(), state.getCurrentY(),
-                    state.getDirection(), state, isMyTank);
+        int myIndex = myPlayerId == null ? -1 : tanks.indexOf(myPlayerId, 0);
+        for (int i = 0; i < tanks.size(); i++) {
+            TankState state = tanks.get(i);
+            boolean isMyTank = i == myIndex;
+            GameRenderer.renderTank(gc, state.getRenderX(alpha), state.getRenderY(alpha),
+                    state.getDirection(), state, isMyTank, now);
         }
 
         // 渲染子弹
-        for (BulletState state : bullets.values()) {
-            GameRenderer.renderBullet(gc, state.getCurrentX(), state.getCurrentY(), state.getDirection());
+        for (int i = 0; i < bullets.size(); i++) {
+            BulletState state = bullets.get(i);
+            if (state.isExpired()) {
+                continue;
+            }
+            GameRenderer.renderBullet(gc, state.getRenderX(alpha), state.getRenderY(alpha), state.getDirection());
         }
     }
 
@@ -703,20 +787,23 @@ public class GameController extends ViewLifecycle {
      * 设置游戏按键监听器
      */
     private void setupGameKeyListener(Scene scene) {
-        // 初始化按键重复处理器
-        keyRepeatHandler = new KeyRepeatHandler(pressedKeys, this::handleTankMove);
+        // 初始化输入采样器：只在按键状态变化时发送移动
+        inputSampler = new InputSampler(pressedKeys, ConfigManager.getInstance().getInputKeepAliveMs(),
+                this::handleTankMove);
+        // 重连期间的移动被丢弃，恢复对局后重发当前按键状态
+        GameConnectionManager.getInstance().setMatchResumedListener(() -> {
+            if (inputSampler != null) {
+                inputSampler.resend();
+            }
+        });
 
         if (gameKeyHandler == null) {
             gameKeyHandler = event -> {
                 KeyCode code = event.getCode();
                 if (code == KeyCode.W || code == KeyCode.A || code == KeyCode.S || code == KeyCode.D) {
+                    // 系统的按键重复会不断触发 KEY_PRESSED，只有新按下的键才需要处理
                     if (pressedKeys.add(code)) {
-                        // 新按下的键，立即发送消息
-                        handleTankMove(code);
-                        // 启动重复定时器
-                        if (pressedKeys.size() == 1) {
-                            keyRepeatHandler.start();
-                        }
+                        inputSampler.onKeysChanged();
                     }
                     event.consume();
                 } else if (code == KeyCode.SPACE) {
@@ -728,9 +815,8 @@ public class GameController extends ViewLifecycle {
             gameKeyReleasedHandler = event -> {
                 KeyCode code = event.getCode();
                 if (code == KeyCode.W || code == KeyCode.A || code == KeyCode.S || code == KeyCode.D) {
-                    pressedKeys.remove(code);
-                    if (pressedKeys.isEmpty()) {
-                        keyRepeatHandler.stop();
+                    if (pressedKeys.remove(code)) {
+                        inputSampler.onKeysChanged();
                     }
                     event.consume();
                 }
@@ -744,9 +830,10 @@ public class GameController extends ViewLifecycle {
      * 移除游戏按键监听
      */
     private void removeGameKeyListener() {
-        if (keyRepeatHandler != null) {
-            keyRepeatHandler.stop();
-            keyRepeatHandler = null;
+        GameConnectionManager.getInstance().setMatchResumedListener(null);
+        if (inputSampler != null) {
+            inputSampler.stop();
+            inputSampler = null;
         }
         pressedKeys.clear();
 
@@ -762,31 +849,26 @@ public class GameController extends ViewLifecycle {
     }
 
     /**
-     * 处理坦克移动
+     * 发送坦克移动状态
      */
-    private void handleTankMove(KeyCode keyCode) {
-        Direction direction = switch (keyCode) {
-            case W -> Direction.UP;
-            case S -> Direction.DOWN;
-            case A -> Direction.LEFT;
-            case D -> Direction.RIGHT;
-            default -> null;
-        };
-
-        if (direction == null) {
-            return;
-        }
-
+    private void handleTankMove(Direction direction, boolean pressed, int inputSeq) {
         Long playerId = UserInfoManager.getInstance().getPlayerId();
         if (playerId == null || roomId == 0) {
             return;
         }
 
+        // 本地立即生效，不等服务端回包
+        if (predictor != null) {
+            predictor.onInput(inputSeq, direction, pressed, nowMs());
+        }
+
         MatchProto.OpRequest request = MatchProto.OpRequest.newBuilder()
                 .setPlayerId(playerId)
                 .setRoomId(roomId)
                 .setOpParams(MatchProto.OpParams.newBuilder()
-                        .setTankDirection(direction.ordinal())
+                        .setTankDirection(direction.getCode())
+                        .setInputSeq(inputSeq)
+                        .setPressed(pressed)
                         .build())
                 .build();
 
@@ -802,12 +884,16 @@ public class GameController extends ViewLifecycle {
             return;
         }
 
-        MatchProto.OpRequest request = MatchProto.OpRequest.newBuilder()
+        MatchProto.OpRequest.Builder request = MatchProto.OpRequest.newBuilder()
                 .setPlayerId(playerId)
-                .setRoomId(roomId)
-                .build();
+                .setRoomId(roomId);
+        if (inputSampler != null) {
+            request.setOpParams(MatchProto.OpParams.newBuilder()
+                    .setInputSeq(inputSampler.nextInputSeq())
+                    .build());
+        }
 
-        GameConnectionManager.getInstance().send(GameMsgType.TANK_SHOOT, request);
+        GameConnectionManager.getInstance().send(GameMsgType.TANK_SHOOT, request.build());
     }
 
     /**
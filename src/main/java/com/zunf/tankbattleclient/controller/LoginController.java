@@ -101,6 +101,7 @@ public class LoginController extends ViewLifecycle {
             // http 请求业务服务器获取token
             return CompletableFuture.supplyAsync(() -> authService.login(username, password))
                     .thenCompose(token -> {
+                        UserInfoManager.getInstance().setToken(token);
                         // 校验账号密码成功后建立tcp连接
                         if (!gameConnectionManager.isConnected()) {
                             gameConnectionManager.connect();
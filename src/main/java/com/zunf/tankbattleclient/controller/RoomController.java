@@ -3,6 +3,7 @@ package com.zunf.tankbattleclient.controller;
 import com.google.protobuf.MessageLite;
 import com.zunf.tankbattleclient.enums.GameMsgType;
 import com.zunf.tankbattleclient.enums.ViewEnum;
+import com.zunf.tankbattleclient.handler.MessageFilter;
 import com.zunf.tankbattleclient.manager.GameConnectionManager;
 import com.zunf.tankbattleclient.manager.UserInfoManager;
 import com.zunf.tankbattleclient.manager.ViewManager;
@@ -397,7 +398,10 @@ public class RoomController extends ViewLifecycle {
         gameConnectionManager.listenMessage(GameMsgType.PLAYER_JOIN_ROOM, joinRoomCallback);
         gameConnectionManager.listenMessage(GameMsgType.PLAYER_LEAVE_ROOM, leaveRoomCallback);
         gameConnectionManager.listenMessage(GameMsgType.PLAYER_READY, readyCallback);
-        gameConnectionManager.listenMessage(GameMsgType.GAME_STARTED, gameStartedCallback);
+        // 开局通知带着整张地图，按房间ID在解析前过滤掉其他房间的
+        gameConnectionManager.listenMessage(GameMsgType.GAME_STARTED,
+                MessageFilter.payloadFieldEquals(GameRoomProto.StartNotice.ROOMID_FIELD_NUMBER, roomDetail.getId()),
+                gameStartedCallback);
     }
 
     private void unregisterMessageListeners() {
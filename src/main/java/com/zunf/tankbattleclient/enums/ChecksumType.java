@@ -0,0 +1,60 @@
+package com.zunf.tankbattleclient.enums;
+
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * 帧校验算法，由协议头中的版本号字节决定
+ * 版本 1：CRC32（原有协议）
+ * 版本 2：CRC32C（现代 CPU 上有硬件指令加速）
+ */
+public enum ChecksumType {
+
+    CRC32(1),
+    CRC32C(2);
+
+    /**
+     * 每个线程复用一个校验实例，避免每帧 new
+     */
+    private static final ThreadLocal<Checksum> CRC32_LOCAL = ThreadLocal.withInitial(CRC32::new);
+    private static final ThreadLocal<Checksum> CRC32C_LOCAL = ThreadLocal.withInitial(CRC32C::new);
+
+    private final int version;
+
+    ChecksumType(int version) {
+        this.version = version;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取当前线程复用的校验实例（已 reset）
+     */
+    public Checksum threadLocalChecksum() {
+        Checksum checksum = this == CRC32C ? CRC32C_LOCAL.get() : CRC32_LOCAL.get();
+        checksum.reset();
+        return checksum;
+    }
+
+    /**
+     * 根据版本号获取校验算法，未知版本返回 null
+     */
+    public static ChecksumType of(int version) {
+        return switch (version) {
+            case 1 -> CRC32;
+            case 2 -> CRC32C;
+            default -> null;
+        };
+    }
+
+    /**
+     * 根据版本号获取校验算法，未知版本按原有协议使用 CRC32
+     */
+    public static ChecksumType ofOrDefault(int version) {
+        ChecksumType type = of(version);
+        return type == null ? CRC32 : type;
+    }
+}
@@ -1,5 +1,7 @@
 package com.zunf.tankbattleclient.enums;
 
+import java.util.NoSuchElementException;
+
 public enum Direction {
     UP(0), // 上
     DOWN(1), // 下
@@ -8,7 +10,31 @@ public enum Direction {
 
     private int code;
 
+    /**
+     * 按编码直接索引，每个 Tick 每个坦克、子弹都要查一次，不用每次 values() 复制数组
+     */
+    private static final Direction[] BY_CODE;
+
+    static {
+        Direction[] values = values();
+        BY_CODE = new Direction[values.length];
+        for (Direction v : values) {
+            BY_CODE[v.code] = v;
+        }
+    }
+
     Direction(int code) {
         this.code = code;
     }
-}
\ No newline at end of file
+
+    public int getCode() {
+        return code;
+    }
+
+    public static Direction of(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new NoSuchElementException("未知的方向: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -6,7 +6,6 @@ import com.zunf.tankbattleclient.protobuf.game.auth.AuthProto;
 import com.zunf.tankbattleclient.protobuf.game.match.MatchProto;
 import com.zunf.tankbattleclient.protobuf.game.room.GameRoomProto;
 
-import java.util.Arrays;
 
 public enum GameMsgType {
     // client -> server
@@ -24,6 +23,8 @@ public enum GameMsgType {
     TANK_MOVE(11),
     TANK_SHOOT(12),
     LEAVE_MATCH(13),
+    RESUME_MATCH(14),
+    TICK_ACK(15),
 
     // server -> client
     PONG(10001),
@@ -32,6 +33,7 @@ public enum GameMsgType {
     PLAYER_READY(10004, GameRoomProto.PlayerInfo.parser()),
     GAME_STARTED(10005, GameRoomProto.StartNotice.parser()),
     GAME_TICK(10006, MatchProto.Tick.parser()),
+    GAME_TICK_DELTA(10007, MatchProto.TickDelta.parser()),
 
     // common
     ERROR(0),
@@ -40,8 +42,43 @@ public enum GameMsgType {
     private final int code;
     private Parser<? extends MessageLite> parser;
 
+    /**
+     * 编码按万位分段（客户端请求 0~、服务端推送 10000~、通用 20000~），每段一个按段内偏移直接索引的数组
+     */
+    private static final int BAND_SIZE = 10000;
+    private static final GameMsgType[][] BY_CODE;
+
+    static {
+        int bands = 0;
+        for (GameMsgType v : values()) {
+            bands = Math.max(bands, v.code / BAND_SIZE + 1);
+        }
+        int[] lengths = new int[bands];
+        for (GameMsgType v : values()) {
+            int band = v.code / BAND_SIZE;
+            lengths[band] = Math.max(lengths[band], v.code % BAND_SIZE + 1);
+        }
+        BY_CODE = new GameMsgType[bands][];
+        for (int i = 0; i < bands; i++) {
+            BY_CODE[i] = new GameMsgType[lengths[i]];
+        }
+        for (GameMsgType v : values()) {
+            BY_CODE[v.code / BAND_SIZE][v.code % BAND_SIZE] = v;
+        }
+    }
+
     public static GameMsgType of(int code) {
-        return Arrays.stream(values()).filter(v -> v.code == code).findFirst().orElse(UNKNOWN);
+        if (code < 0) {
+            return UNKNOWN;
+        }
+        int band = code / BAND_SIZE;
+        if (band >= BY_CODE.length) {
+            return UNKNOWN;
+        }
+        GameMsgType[] table = BY_CODE[band];
+        int offset = code - band * BAND_SIZE;
+        GameMsgType v = offset < table.length ? table[offset] : null;
+        return v == null ? UNKNOWN : v;
     }
 
     GameMsgType(int code) {
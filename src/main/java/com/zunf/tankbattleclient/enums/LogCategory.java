@@ -0,0 +1,23 @@
+package com.zunf.tankbattleclient.enums;
+
+/**
+ * 日志分类，每个分类可以单独配置级别（log.level.<分类小写>）
+ */
+public enum LogCategory {
+    /**
+     * 连接、收发帧、心跳、重连
+     */
+    NET,
+    /**
+     * 消息分发与请求回调
+     */
+    DISPATCH,
+    /**
+     * 对局逻辑与渲染
+     */
+    GAME,
+    /**
+     * 其余界面与应用逻辑
+     */
+    APP
+}
@@ -0,0 +1,30 @@
+package com.zunf.tankbattleclient.enums;
+
+/**
+ * 日志级别，按声明顺序从低到高
+ */
+public enum LogLevel {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    /**
+     * 关闭
+     */
+    OFF;
+
+    /**
+     * 根据配置值获取级别，无法识别时返回 def
+     */
+    public static LogLevel of(String name, LogLevel def) {
+        if (name != null) {
+            for (LogLevel level : values()) {
+                if (level.name().equalsIgnoreCase(name.trim())) {
+                    return level;
+                }
+            }
+        }
+        return def;
+    }
+}
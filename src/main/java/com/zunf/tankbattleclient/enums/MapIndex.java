@@ -1,6 +1,6 @@
 package com.zunf.tankbattleclient.enums;
 
-import java.util.Arrays;
+import java.util.NoSuchElementException;
 
 public enum MapIndex {
 
@@ -15,6 +15,17 @@ public enum MapIndex {
 
     private byte code;
 
+    /**
+     * 按编码直接索引，渲染时每帧每个格子都要查一次
+     */
+    private static final MapIndex[] BY_CODE = new MapIndex[256];
+
+    static {
+        for (MapIndex v : values()) {
+            BY_CODE[v.code & 0xFF] = v;
+        }
+    }
+
     MapIndex (byte code) {
         this.code = code;
     }
@@ -24,6 +35,10 @@ public enum MapIndex {
     }
 
     public static MapIndex of(byte code) {
-        return Arrays.stream(values()).filter((c) -> c.getCode() == code).findFirst().orElseThrow();
+        MapIndex v = BY_CODE[code & 0xFF];
+        if (v == null) {
+            throw new NoSuchElementException("未知的地图格子类型: " + code);
+        }
+        return v;
     }
 }
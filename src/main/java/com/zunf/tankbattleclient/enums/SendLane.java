@@ -0,0 +1,36 @@
+package com.zunf.tankbattleclient.enums;
+
+/**
+ * 发送通道，按声明顺序优先级从高到低：写线程总是先发完高优先级通道再发低优先级通道
+ */
+public enum SendLane {
+
+    /**
+     * 操作输入（移动、射击、tick 确认），延迟最敏感；积压时只丢弃已被更新状态取代的移动和确认，
+     * 射击等离散操作不丢，没有可丢的时拒绝新消息
+     */
+    INPUT(false),
+
+    /**
+     * 控制类请求（登录、加入/离开房间、心跳等），不能丢；满了拒绝新消息
+     */
+    CONTROL(false),
+
+    /**
+     * 批量/轮询类请求（如大厅分页轮询），积压时丢弃最旧的
+     */
+    BULK(true);
+
+    /**
+     * 通道满时是否丢弃最旧的消息（否则拒绝新消息）
+     */
+    private final boolean dropOldest;
+
+    SendLane(boolean dropOldest) {
+        this.dropOldest = dropOldest;
+    }
+
+    public boolean isDropOldest() {
+        return dropOldest;
+    }
+}
@@ -0,0 +1,41 @@
+package com.zunf.tankbattleclient.enums;
+
+/**
+ * TCP 传输模式
+ */
+public enum TransportMode {
+
+    /**
+     * 阻塞 Socket，读写各占一个线程（默认）
+     */
+    BLOCKING("blocking"),
+
+    /**
+     * SocketChannel + Selector 非阻塞，单个 IO 线程完成读写
+     */
+    NIO("nio");
+
+    private final String code;
+
+    TransportMode(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 根据配置值获取传输模式，无法识别时回退为阻塞模式
+     */
+    public static TransportMode of(String code) {
+        if (code != null) {
+            for (TransportMode mode : values()) {
+                if (mode.code.equalsIgnoreCase(code.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return BLOCKING;
+    }
+}
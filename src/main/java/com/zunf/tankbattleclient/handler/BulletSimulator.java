@@ -0,0 +1,101 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.constant.GameConstants;
+import com.zunf.tankbattleclient.enums.Direction;
+import com.zunf.tankbattleclient.model.bo.BulletState;
+import com.zunf.tankbattleclient.model.bo.CollisionGrid;
+import com.zunf.tankbattleclient.model.bo.SnapshotHistory;
+
+/**
+ * 子弹本地推算
+ * 渲染时刻落在两个服务端快照之间时照常插值；超过最新快照（Tick 迟到、Tick 频率低）时
+ * 从最新快照沿方向按子弹速度外推，不再停在原地等下一个 Tick。
+ * 推算路径进入碰撞位图中的阻挡格子时子弹立即标记为失效、不再绘制，不等服务端下一个 Tick 移除；
+ * 下一个 Tick 到达后插值重新以服务端位置为准，比判定时刻更新的 Tick 里子弹仍在则说明判定错了，恢复显示。
+ * 所有方法都在 UI 线程中调用
+ */
+public final class BulletSimulator {
+
+    /**
+     * 沿路径检查阻挡的步长（px），小于一个格子保证不会穿墙
+     */
+    private static final double STEP = GameConstants.CELL_SIZE / 2.0;
+
+    private final CollisionGrid grid;
+    private final double speedPxPerMs;
+    private final long maxExtrapolateMs;
+
+    /**
+     * @param speedPxPerSec    子弹飞行速度（需与服务端一致）
+     * @param maxExtrapolateMs 最多外推的时长，超过后停在原地等服务端
+     */
+    public BulletSimulator(CollisionGrid grid, double speedPxPerSec, long maxExtrapolateMs) {
+        this.grid = grid;
+        this.speedPxPerMs = speedPxPerSec / 1000.0;
+        this.maxExtrapolateMs = Math.max(0, maxExtrapolateMs);
+    }
+
+    /**
+     * 收到已有子弹的服务端快照
+     * 已判定撞墙、但比判定时刻更新的快照里子弹仍然存在时（速度与服务端不一致、砖块已被打掉等），
+     * 恢复显示并直接对齐到服务端位置
+     */
+    public void onSnapshot(BulletState state, long serverTime, double x, double y, Direction direction) {
+        if (state.isExpired() && serverTime > state.getExpiredAt()) {
+            state.getSnapshots().reset(serverTime, x, y, direction);
+            state.setCurrentX(x);
+            state.setCurrentY(y);
+            state.setDirection(direction);
+            state.storePrevious();
+            state.setAnimating(false);
+            state.setExpired(false);
+            return;
+        }
+        state.getSnapshots().add(serverTime, x, y, direction);
+    }
+
+    /**
+     * 把 renderTime 时刻的子弹位置写入 state，撞墙时标记失效
+     */
+    public void update(BulletState state, long renderTime) {
+        SnapshotHistory snapshots = state.getSnapshots();
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        long newestTime = snapshots.newestTime();
+        if (renderTime <= newestTime) {
+            state.setAnimating(snapshots.sample(renderTime, state));
+            return;
+        }
+
+        Direction direction = snapshots.newestDirection();
+        double x = snapshots.newestX();
+        double y = snapshots.newestY();
+        double remaining = Math.min(renderTime - newestTime, maxExtrapolateMs) * speedPxPerMs;
+        double dx = 0, dy = 0;
+        switch (direction) {
+            case UP -> dy = -1;
+            case DOWN -> dy = 1;
+            case LEFT -> dx = -1;
+            case RIGHT -> dx = 1;
+        }
+        // 没有地图时不做碰撞
+        boolean checkWalls = !grid.isEmpty();
+        while (remaining > 0) {
+            double step = Math.min(STEP, remaining);
+            x += dx * step;
+            y += dy * step;
+            remaining -= step;
+            if (checkWalls && grid.isBlockedAt(x, y)) {
+                state.setExpired(true);
+                state.setExpiredAt(renderTime);
+                state.setAnimating(false);
+                return;
+            }
+        }
+        state.setCurrentX(x);
+        state.setCurrentY(y);
+        state.setDirection(direction);
+        state.setAnimating(true);
+    }
+}
@@ -0,0 +1,52 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.enums.ChecksumType;
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.util.Log;
+
+/**
+ * 帧校验算法协商
+ * 客户端用配置的 protocol.version 作为首选版本发出请求（即向服务端提议校验算法），
+ * 服务端回包协议头中的版本号即为它接受的算法：收到后客户端的发送版本跟随服务端，
+ * 但不会升级到比首选版本更高的算法
+ */
+public final class ChecksumNegotiator {
+
+    private final ChecksumType preferred;
+    private volatile ChecksumType current;
+
+    public ChecksumNegotiator(int preferredVersion) {
+        this.preferred = ChecksumType.ofOrDefault(preferredVersion);
+        this.current = preferred;
+    }
+
+    /**
+     * 当前发送使用的协议版本号
+     */
+    public byte outboundVersion() {
+        return (byte) current.getVersion();
+    }
+
+    public ChecksumType current() {
+        return current;
+    }
+
+    /**
+     * 收到服务端的帧时调用，根据其版本号调整发送版本
+     */
+    public void onInboundVersion(int version) {
+        ChecksumType type = ChecksumType.of(version);
+        if (type == null || type == current || type.getVersion() > preferred.getVersion()) {
+            return;
+        }
+        current = type;
+        Log.info(LogCategory.NET, "帧校验算法协商为: {}", type);
+    }
+
+    /**
+     * 重新建连时恢复为首选版本，重新协商
+     */
+    public void reset() {
+        current = preferred;
+    }
+}
@@ -1,5 +1,8 @@
 package com.zunf.tankbattleclient.handler;
 
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.util.Log;
+
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -42,7 +45,7 @@ public class CycleAtomicInteger {
             // 当前值超过安全阈值，尝试重置为起始值
             // 使用 CAS 操作确保线程安全，只有一个线程能成功重置
             if (requestIdAtomic.compareAndSet(current, MIN_REQUEST_ID)) {
-                System.out.println("请求ID达到安全阈值 " + current + "，重置为 " + MIN_REQUEST_ID);
+                Log.info(LogCategory.NET, "请求ID达到安全阈值 {}，重置为 {}", current, MIN_REQUEST_ID);
                 return MIN_REQUEST_ID;
             }
             // 如果 CAS 失败，说明其他线程已经重置，继续循环获取新值
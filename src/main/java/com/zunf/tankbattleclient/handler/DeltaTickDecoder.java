@@ -0,0 +1,134 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.protobuf.game.match.MatchProto;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 增量 Tick 还原器
+ * 服务端以客户端确认过（TICK_ACK）的某个 tick 为基线，只发送变化的坦克、子弹和地图格子；
+ * 客户端保留最近若干个已还原 tick 的状态作为候选基线，在基线上应用增量还原出完整 Tick，
+ * 基线找不到或增量不合法时返回 null，由调用方请求服务端重发完整 Tick。
+ * 地图格子变化不需要基线，原样放进还原出的 Tick 的 mapChanges，由地图模型就地应用。
+ * 还原只发生在 GAME_TICK 的分发条带上，加锁只是为了让断线、离开对局时可以从其他线程 reset
+ */
+public final class DeltaTickDecoder {
+
+    /**
+     * 一个已还原 tick 的状态，列表均不可变
+     */
+    private record Baseline(long tickTimeStamp, List<MatchProto.Tank> tanks, List<MatchProto.Bullet> bullets) {
+    }
+
+    /**
+     * 子弹 key：bulletId 只在同一玩家内唯一
+     */
+    private record BulletKey(long playerId, long bulletId) {
+    }
+
+    private final Baseline[] history;
+    private int next = 0;
+    private long roomId = 0;
+    private Baseline latest;
+
+    public DeltaTickDecoder(int historySize) {
+        this.history = new Baseline[Math.max(1, historySize)];
+    }
+
+    /**
+     * 清空基线（断线、离开对局时调用）
+     */
+    public synchronized void reset() {
+        Arrays.fill(history, null);
+        next = 0;
+        roomId = 0;
+        latest = null;
+    }
+
+    /**
+     * 最近一个已还原 tick 的时间戳，没有为 0
+     */
+    public synchronized long latestTimeStamp() {
+        return latest == null ? 0 : latest.tickTimeStamp();
+    }
+
+    /**
+     * 收到完整 Tick：记录为基线，原样返回
+     */
+    public synchronized MatchProto.Tick onFull(MatchProto.Tick tick) {
+        if (tick.getRoomId() != roomId) {
+            reset();
+            roomId = tick.getRoomId();
+        }
+        remember(new Baseline(tick.getTickTimeStamp(), List.copyOf(tick.getTanksList()),
+                List.copyOf(tick.getBulletsList())));
+        return tick;
+    }
+
+    /**
+     * 收到增量 Tick：在基线上还原出完整 Tick
+     *
+     * @return 还原结果，基线缺失或增量不合法时返回 null（需要请求完整 Tick）
+     */
+    public synchronized MatchProto.Tick onDelta(MatchProto.TickDelta delta) {
+        Baseline base = delta.getRoomId() == roomId ? find(delta.getBaseTickTimeStamp()) : null;
+        if (base == null) {
+            return null;
+        }
+
+        Map<Long, MatchProto.Tank> tanks = new LinkedHashMap<>();
+        for (MatchProto.Tank tank : base.tanks()) {
+            tanks.put(tank.getPlayerId(), tank);
+        }
+        for (long playerId : delta.getRemovedTankIdsList()) {
+            tanks.remove(playerId);
+        }
+        for (MatchProto.Tank tank : delta.getChangedTanksList()) {
+            tanks.put(tank.getPlayerId(), tank);
+        }
+
+        Map<BulletKey, MatchProto.Bullet> bullets = new LinkedHashMap<>();
+        for (MatchProto.Bullet bullet : base.bullets()) {
+            bullets.put(new BulletKey(bullet.getPlayerId(), bullet.getBulletId()), bullet);
+        }
+        for (MatchProto.BulletRef ref : delta.getRemovedBulletsList()) {
+            bullets.remove(new BulletKey(ref.getPlayerId(), ref.getBulletId()));
+        }
+        for (MatchProto.Bullet bullet : delta.getChangedBulletsList()) {
+            bullets.put(new BulletKey(bullet.getPlayerId(), bullet.getBulletId()), bullet);
+        }
+
+        Baseline state = new Baseline(delta.getTickTimeStamp(), List.copyOf(tanks.values()),
+                List.copyOf(bullets.values()));
+        remember(state);
+
+        return MatchProto.Tick.newBuilder()
+                .setRoomId(delta.getRoomId())
+                .setTickTimeStamp(delta.getTickTimeStamp())
+                .addAllTanks(state.tanks())
+                .addAllBullets(state.bullets())
+                .setIsGameOver(delta.getIsGameOver())
+                .setWinnerPlayerId(delta.getWinnerPlayerId())
+                .setEndReason(delta.getEndReason())
+                .addAllMapChanges(delta.getChangedCellsList())
+                .build();
+    }
+
+    private void remember(Baseline state) {
+        history[next] = state;
+        next = (next + 1) % history.length;
+        latest = state;
+    }
+
+    private Baseline find(long tickTimeStamp) {
+        for (Baseline b : history) {
+            if (b != null && b.tickTimeStamp() == tickTimeStamp) {
+                return b;
+            }
+        }
+        return null;
+    }
+}
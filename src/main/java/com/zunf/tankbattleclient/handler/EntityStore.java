@@ -0,0 +1,246 @@
+package com.zunf.tankbattleclient.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 游戏实体存储（坦克、子弹）
+ * 并行数组只存 key（owner、id）、代号和状态对象引用，位置、方向、血量、计时等仍在各自的状态对象上
+ * （每个实体自带快照环，插值、外推、预测都经由状态对象读取）。实体下标连续，遍历直接按下标走，不经过迭代器和 Entry；
+ * key 到下标的索引是开放寻址哈希表（线性探测，删除时向后移位），不装箱、不拼接字符串。
+ * 每个 Tick 开始时 beginGeneration，本 Tick 出现的实体 touch 打上当前代号，结束时 sweep 移除没打上的，
+ * 不再每个 Tick 新建一张表。删除用末尾元素填洞，被删掉的状态对象留在数组尾部，下次 add 时复用（调用方负责重新初始化）。
+ * sweep 时顺带通知监听器本代新出现（此时状态已初始化）和被移除（移除前）的实体，供音效、特效等订阅。
+ * 非线程安全，只在 UI 线程中使用
+ */
+public final class EntityStore<S> {
+
+    /**
+     * 实体出现/消失事件
+     */
+    public interface Listener<S> {
+
+        default void onSpawn(long owner, long id, S state) {
+        }
+
+        default void onDespawn(long owner, long id, S state) {
+        }
+    }
+
+    private static final int FREE = -1;
+
+    private final Supplier<S> factory;
+    private final List<Listener<S>> listeners = new ArrayList<>();
+
+    // 稠密数组，[0, size) 为有效实体，[size, length) 为可复用的状态对象
+    private long[] owners;
+    private long[] ids;
+    private int[] stamps;
+    private int[] births;
+    private Object[] states;
+    private int size = 0;
+    private int generation = 0;
+
+    // 索引：key 所在槽位存放稠密数组下标
+    private int[] table;
+    private int mask;
+
+    public EntityStore(int expectedSize, Supplier<S> factory) {
+        this.factory = factory;
+        // 容量取 2 的幂，索引表始终是稠密数组的两倍
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) - 1) << 1;
+        owners = new long[capacity];
+        ids = new long[capacity];
+        stamps = new int[capacity];
+        births = new int[capacity];
+        states = new Object[capacity];
+        allocateTable(capacity << 1);
+    }
+
+    public void addListener(Listener<S> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener<S> listener) {
+        listeners.remove(listener);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public S get(int index) {
+        return (S) states[index];
+    }
+
+    /**
+     * @return 实体下标，不存在返回 -1
+     */
+    public int indexOf(long owner, long id) {
+        int slot = findSlot(owner, id);
+        return slot < 0 ? -1 : table[slot];
+    }
+
+    /**
+     * 按 key 取状态，不存在返回 null
+     */
+    public S find(long owner, long id) {
+        int index = indexOf(owner, id);
+        return index < 0 ? null : get(index);
+    }
+
+    /**
+     * 新增实体（调用方保证 key 不存在），打上当前代号
+     *
+     * @return 新实体的下标；对应的状态对象可能是复用的，需要重新初始化
+     */
+    public int add(long owner, long id) {
+        if (size == owners.length) {
+            grow();
+        }
+        int index = size++;
+        owners[index] = owner;
+        ids[index] = id;
+        stamps[index] = generation;
+        births[index] = generation;
+        if (states[index] == null) {
+            states[index] = factory.get();
+        }
+        int slot = slot(owner, id);
+        while (table[slot] != FREE) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index;
+        return index;
+    }
+
+    /**
+     * 开始新的一代（一个 Tick）
+     */
+    public void beginGeneration() {
+        generation++;
+    }
+
+    /**
+     * 标记实体在当前一代中仍然存在
+     */
+    public void touch(int index) {
+        stamps[index] = generation;
+    }
+
+    /**
+     * 移除当前一代中没有 touch 的实体，并通知本代新出现的实体
+     */
+    public void sweep() {
+        // 从后往前删，填洞的末尾元素已经检查过
+        for (int i = size - 1; i >= 0; i--) {
+            if (stamps[i] != generation) {
+                fireDespawn(i);
+                removeAt(i);
+            } else if (births[i] == generation) {
+                fireSpawn(i);
+            }
+        }
+    }
+
+    /**
+     * 清空实体，不触发事件
+     */
+    public void clear() {
+        Arrays.fill(table, FREE);
+        size = 0;
+    }
+
+    private void removeAt(int index) {
+        deleteSlot(findSlot(owners[index], ids[index]));
+        int last = --size;
+        if (index != last) {
+            owners[index] = owners[last];
+            ids[index] = ids[last];
+            stamps[index] = stamps[last];
+            births[index] = births[last];
+            Object removed = states[index];
+            states[index] = states[last];
+            states[last] = removed;
+            table[findSlot(owners[index], ids[index])] = index;
+        }
+    }
+
+    private void fireSpawn(int index) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onSpawn(owners[index], ids[index], get(index));
+        }
+    }
+
+    private void fireDespawn(int index) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onDespawn(owners[index], ids[index], get(index));
+        }
+    }
+
+    private int findSlot(long owner, long id) {
+        int slot = slot(owner, id);
+        int index;
+        while ((index = table[slot]) != FREE) {
+            if (owners[index] == owner && ids[index] == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 删除后把同一探测链上后面的元素前移，保证查找不会在空槽处提前终止
+     */
+    private void deleteSlot(int hole) {
+        int i = hole;
+        for (;;) {
+            i = (i + 1) & mask;
+            int index = table[i];
+            if (index == FREE) {
+                break;
+            }
+            int home = slot(owners[index], ids[index]);
+            // home 不在 (hole, i] 区间内时，该元素可以移到 hole
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                table[hole] = index;
+                hole = i;
+            }
+        }
+        table[hole] = FREE;
+    }
+
+    private int slot(long owner, long id) {
+        long h = owner * 0x9E3779B97F4A7C15L + id;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        int capacity = owners.length << 1;
+        owners = Arrays.copyOf(owners, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        stamps = Arrays.copyOf(stamps, capacity);
+        births = Arrays.copyOf(births, capacity);
+        states = Arrays.copyOf(states, capacity);
+        // 负载因子不超过 0.5
+        allocateTable(capacity << 1);
+        for (int index = 0; index < size; index++) {
+            int slot = slot(owners[index], ids[index]);
+            while (table[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index;
+        }
+    }
+
+    private void allocateTable(int capacity) {
+        table = new int[capacity];
+        Arrays.fill(table, FREE);
+        mask = capacity - 1;
+    }
+}
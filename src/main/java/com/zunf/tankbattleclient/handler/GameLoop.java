@@ -0,0 +1,104 @@
+package com.zunf.tankbattleclient.handler;
+
+/**
+ * 固定步长游戏循环
+ * 每帧把经过的真实时间（System.nanoTime）累加进累加器，按固定步长推进模拟（插值、预测、各类动画计时），
+ * 剩余不足一步的时间作为 alpha 交给渲染，在上一步和当前步的状态之间插值。
+ * 游戏时钟只随模拟步推进，渲染帧率高低、限帧或暂停都不影响游戏节奏。
+ * 单帧经过的时间有上限，卡顿后不会一口气补跑大量步（游戏时钟相应顺延）。
+ * 由 JavaFX 的 AnimationTimer 每个脉冲驱动，所有方法都在 UI 线程中调用
+ */
+public final class GameLoop {
+
+    /**
+     * 推进一个固定步长
+     */
+    @FunctionalInterface
+    public interface Simulation {
+        /**
+         * @param timeMs 推进后的游戏时钟（毫秒）
+         */
+        void step(long timeMs);
+    }
+
+    /**
+     * 渲染一帧
+     */
+    @FunctionalInterface
+    public interface Renderer {
+        /**
+         * @param alpha 当前时刻在上一步和当前步之间的位置，[0, 1)
+         */
+        void render(double alpha);
+    }
+
+    /**
+     * 单帧最多计入的时间（纳秒）
+     */
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+
+    private final long stepNanos;
+    private final long minRenderIntervalNanos;
+    private final Simulation simulation;
+    private final Renderer renderer;
+
+    private boolean started = false;
+    private long lastFrameNanos;
+    private long lastRenderNanos;
+    private long accumulatorNanos;
+    private long timeNanos;
+    private boolean renderPaused = false;
+
+    /**
+     * @param stepsPerSecond 每秒模拟步数
+     * @param maxFps         渲染帧率上限，不大于 0 表示不限制
+     */
+    public GameLoop(int stepsPerSecond, int maxFps, Simulation simulation, Renderer renderer) {
+        this.stepNanos = 1_000_000_000L / Math.max(1, stepsPerSecond);
+        this.minRenderIntervalNanos = maxFps > 0 ? 1_000_000_000L / maxFps : 0;
+        this.simulation = simulation;
+        this.renderer = renderer;
+        this.timeNanos = System.nanoTime();
+    }
+
+    /**
+     * 游戏时钟（毫秒），与 System.nanoTime 同一基准，只按步长推进
+     */
+    public long timeMs() {
+        return timeNanos / 1_000_000;
+    }
+
+    /**
+     * 暂停/恢复渲染，模拟照常推进
+     */
+    public void setRenderPaused(boolean renderPaused) {
+        this.renderPaused = renderPaused;
+    }
+
+    /**
+     * 处理一帧
+     *
+     * @param nowNanos 当前时刻（System.nanoTime 基准）
+     */
+    public void frame(long nowNanos) {
+        if (!started) {
+            started = true;
+            lastFrameNanos = nowNanos;
+            lastRenderNanos = nowNanos - minRenderIntervalNanos;
+        }
+        long elapsed = Math.min(Math.max(0, nowNanos - lastFrameNanos), MAX_FRAME_NANOS);
+        lastFrameNanos = nowNanos;
+        accumulatorNanos += elapsed;
+        while (accumulatorNanos >= stepNanos) {
+            timeNanos += stepNanos;
+            accumulatorNanos -= stepNanos;
+            simulation.step(timeMs());
+        }
+
+        if (renderPaused || nowNanos - lastRenderNanos < minRenderIntervalNanos) {
+            return;
+        }
+        lastRenderNanos = nowNanos;
+        renderer.render(accumulatorNanos / (double) stepNanos);
+    }
+}
@@ -0,0 +1,172 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 哈希时间轮
+ * 时间轮有 wheelSize 个槽，每 tickMs 前进一格，定时任务按到期时间挂到对应槽的双向链表上（超过一圈的记录剩余圈数）；
+ * 每格只扫描一个槽，到期的任务成批取出执行。添加、取消都是 O(1)，大量定时任务共享一个线程
+ * 精度为一个 tick，适合请求超时这类不需要精确到毫秒的场景
+ */
+public final class HashedWheelTimer {
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Thread worker;
+    private final long startNanos;
+
+    /**
+     * 已经走过的格数，由 this 加锁保护
+     */
+    private long tick = 0;
+
+    public HashedWheelTimer(String name, long tickMs, int wheelSize) {
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMs));
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 在 delayMs 之后执行 task（在时间轮线程中执行，task 应尽快返回）
+     */
+    public Timeout newTimeout(long delayMs, Runnable task) {
+        // 向上取整到 tick，保证不会提前超时
+        long ticks = Math.max(1, (TimeUnit.MILLISECONDS.toNanos(delayMs) + tickNanos - 1) / tickNanos);
+        Timeout timeout = new Timeout(task);
+        synchronized (this) {
+            long deadline = tick + ticks;
+            timeout.remainingRounds = (ticks - 1) / wheel.length;
+            timeout.bucket = wheel[(int) (deadline & mask)];
+            timeout.bucket.add(timeout);
+        }
+        return timeout;
+    }
+
+    private void run() {
+        List<Timeout> expired = new ArrayList<>();
+        while (true) {
+            long next;
+            synchronized (this) {
+                next = startNanos + (tick + 1) * tickNanos;
+            }
+            long sleepNanos = next - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            synchronized (this) {
+                tick++;
+                wheel[(int) (tick & mask)].expire(expired);
+            }
+            for (Timeout t : expired) {
+                try {
+                    t.task.run();
+                } catch (Throwable e) {
+                    Log.error(LogCategory.DISPATCH, "时间轮任务执行异常", e);
+                }
+            }
+            expired.clear();
+        }
+    }
+
+    /**
+     * 一个定时任务，可以取消
+     */
+    public final class Timeout {
+
+        private final Runnable task;
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * 取消任务
+         *
+         * @return false 表示任务已经到期（或已被取消）
+         */
+        public boolean cancel() {
+            synchronized (HashedWheelTimer.this) {
+                if (bucket == null) {
+                    return false;
+                }
+                bucket.remove(this);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 时间轮的一个槽：侵入式双向链表
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout t) {
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) {
+                head = t;
+            } else {
+                tail.next = t;
+            }
+            tail = t;
+        }
+
+        void remove(Timeout t) {
+            if (t.prev == null) {
+                head = t.next;
+            } else {
+                t.prev.next = t.next;
+            }
+            if (t.next == null) {
+                tail = t.prev;
+            } else {
+                t.next.prev = t.prev;
+            }
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+        }
+
+        /**
+         * 取出本圈到期的任务，其余任务圈数减一
+         */
+        void expire(List<Timeout> out) {
+            Timeout t = head;
+            while (t != null) {
+                Timeout next = t.next;
+                if (t.remainingRounds <= 0) {
+                    remove(t);
+                    out.add(t);
+                } else {
+                    t.remainingRounds--;
+                }
+                t = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.model.bo.RttStats;
+import com.zunf.tankbattleclient.util.Log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * 心跳监控
+ * 按固定间隔发送 PING，并按 requestId 匹配 PONG 计算 RTT；
+ * 每到下一次发送时，上一个 PING 仍未收到 PONG 即记为一次丢失，连续丢失达到上限时回调 onDead，
+ * 这样不用等到读失败（可能要等 TCP 超时很久）就能发现连接已经断开
+ */
+public final class HeartbeatMonitor {
+
+    /**
+     * RTT 滚动窗口大小
+     */
+    private static final int WINDOW_SIZE = 128;
+
+    /**
+     * 平滑 RTT 的权重：新样本占 1/8（与 TCP 的 SRTT 相同）
+     */
+    private static final double SMOOTHING = 0.125;
+
+    private final long intervalMs;
+    private final int maxMissed;
+    private final IntSupplier requestIdGenerator;
+    private final PingSender pingSender;
+    private final Runnable onDead;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tcp-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * 已发出但尚未收到 PONG 的 PING：requestId -> 发送时间（纳秒）
+     */
+    private final Map<Integer, Long> inFlight = new ConcurrentHashMap<>();
+
+    private final RttHistogram rttHistogram = new RttHistogram(WINDOW_SIZE);
+    private final RttHistogram jitterHistogram = new RttHistogram(WINDOW_SIZE);
+
+    private volatile ScheduledFuture<?> task;
+    private volatile int missedInARow = 0;
+    private volatile long lastRttNanos = -1;
+    /**
+     * 每次收到 PONG 时更新的平滑 RTT（毫秒），供每帧调用的地方直接读取，不用排序窗口
+     */
+    private volatile double smoothedRttMs = 0;
+
+    /**
+     * 发送一个 PING
+     */
+    @FunctionalInterface
+    public interface PingSender {
+        void sendPing(int requestId, long clientTimeMs);
+    }
+
+    public HeartbeatMonitor(long intervalMs, int maxMissed, IntSupplier requestIdGenerator,
+                            PingSender pingSender, Runnable onDead) {
+        this.intervalMs = intervalMs;
+        this.maxMissed = Math.max(1, maxMissed);
+        this.requestIdGenerator = requestIdGenerator;
+        this.pingSender = pingSender;
+        this.onDead = onDead;
+    }
+
+    /**
+     * 建连后开始心跳，间隔 <= 0 时不启用
+     */
+    public synchronized void start() {
+        stop();
+        if (intervalMs <= 0) {
+            return;
+        }
+        missedInARow = 0;
+        lastRttNanos = -1;
+        smoothedRttMs = 0;
+        rttHistogram.clear();
+        jitterHistogram.clear();
+        task = scheduler.scheduleAtFixedRate(this::beat, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+        inFlight.clear();
+    }
+
+    /**
+     * 收到 PONG 时调用
+     *
+     * @return 是否匹配到了本监控发出的 PING
+     */
+    public boolean onPong(int requestId) {
+        Long sentAt = inFlight.remove(requestId);
+        if (sentAt == null) {
+            // 未知或已被记为丢失的 PONG，忽略
+            return false;
+        }
+        long rtt = System.nanoTime() - sentAt;
+        rttHistogram.record(rtt);
+        if (lastRttNanos >= 0) {
+            jitterHistogram.record(Math.abs(rtt - lastRttNanos));
+        }
+        lastRttNanos = rtt;
+        double rttMs = toMs(rtt);
+        smoothedRttMs = smoothedRttMs == 0 ? rttMs : smoothedRttMs + SMOOTHING * (rttMs - smoothedRttMs);
+        missedInARow = 0;
+        return true;
+    }
+
+    /**
+     * 平滑 RTT（毫秒），还没有样本时为 0
+     */
+    public double smoothedRttMs() {
+        return smoothedRttMs;
+    }
+
+    /**
+     * 当前 RTT 统计快照（会复制并排序窗口，不要每帧调用）
+     */
+    public RttStats stats() {
+        long[] rtt = rttHistogram.sortedSnapshot();
+        if (rtt.length == 0) {
+            return new RttStats(0, 0, 0, 0, 0, 0, missedInARow);
+        }
+        long[] jitter = jitterHistogram.sortedSnapshot();
+        return new RttStats(rtt.length,
+                toMs(rtt[0]),
+                toMs(RttHistogram.percentile(rtt, 50)),
+                toMs(RttHistogram.percentile(rtt, 99)),
+                toMs(RttHistogram.percentile(jitter, 50)),
+                toMs(RttHistogram.percentile(jitter, 99)),
+                missedInARow);
+    }
+
+    private void beat() {
+        try {
+            // 上一轮发出的 PING 到现在还没回，记为丢失
+            if (!inFlight.isEmpty()) {
+                inFlight.clear();
+                missedInARow++;
+                Log.info(LogCategory.NET, "心跳丢失: 连续 {} 次", missedInARow);
+                if (missedInARow >= maxMissed) {
+                    Log.warn(LogCategory.NET, "心跳连续丢失 {} 次，判定连接已断开", missedInARow);
+                    stop();
+                    onDead.run();
+                    return;
+                }
+            }
+            // 先登记再发送，避免 PONG 比登记先到
+            int requestId = requestIdGenerator.getAsInt();
+            inFlight.put(requestId, System.nanoTime());
+            pingSender.sendPing(requestId, System.currentTimeMillis());
+        } catch (Exception e) {
+            Log.warn(LogCategory.NET, "发送心跳异常: {}", e.getMessage());
+        }
+    }
+
+    private static double toMs(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
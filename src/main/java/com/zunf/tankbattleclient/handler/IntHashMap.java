@@ -0,0 +1,148 @@
+package com.zunf.tankbattleclient.handler;
+
+import java.util.Arrays;
+
+/**
+ * int 为 key 的开放寻址哈希表（线性探测）
+ * key 直接存在 int[] 中，不装箱、没有 Entry 对象，删除时向后移位而不是留墓碑，探测链不会越用越长
+ * key 0 保留为空槽标记，不能作为 key（请求ID从 1 开始）
+ * 非线程安全，由调用方加锁
+ */
+public final class IntHashMap<V> {
+
+    private static final int EMPTY = 0;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size = 0;
+    private int resizeThreshold;
+
+    public IntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        checkKey(key);
+        int i = indexOf(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    /**
+     * @return 被替换掉的旧值，没有则为 null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        checkKey(key);
+        int i = slot(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        checkKey(key);
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = (V) values[i];
+        deleteAt(i);
+        size--;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private int indexOf(int key) {
+        int i = slot(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 删除后把同一探测链上后面的元素前移，保证查找不会在空槽处提前终止
+     */
+    private void deleteAt(int hole) {
+        int i = hole;
+        for (;;) {
+            i = (i + 1) & mask;
+            int key = keys[i];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = slot(key);
+            // home 不在 (hole, i] 区间内时，该元素可以移到 hole
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+    }
+
+    private int slot(int key) {
+        // 请求ID是连续递增的，乘法散列把它们打散
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        // 负载因子 0.5，线性探测的探测长度保持很短
+        resizeThreshold = capacity >> 1;
+    }
+
+    private static void checkKey(int key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("key 0 is reserved");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.zunf.tankbattleclient.handler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 日志采样限流：每秒最多放行 permitsPerSecond 条，其余只计数
+ * 每个高频日志点持有一个实例（static final），被抑制的条数附在下一条放行的日志后面
+ */
+public final class LogRateLimiter {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final int permitsPerSecond;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogRateLimiter(int permitsPerSecond) {
+        this.permitsPerSecond = Math.max(1, permitsPerSecond);
+    }
+
+    /**
+     * 尝试放行一条
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permitsPerSecond) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * 取出并清零上次放行以来被抑制的条数
+     */
+    public long takeSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,83 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.model.bo.LogEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁有界环形缓冲区（多生产者、单消费者）
+ * 每个槽位带一个序号：生产者 CAS 抢占写位置后写入数据再发布序号，消费者看到序号就绪才读取；
+ * 满了直接丢弃并计数，日志永远不会阻塞网络线程和 UI 线程
+ */
+public final class LogRingBuffer {
+
+    private final int mask;
+    private final LogEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 消费位置，只有消费线程访问
+     */
+    private long head = 0;
+
+    public LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new LogEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 放入一条日志，缓冲区满时丢弃
+     */
+    public boolean offer(LogEvent event) {
+        long pos = tail.get();
+        for (;;) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots[index] = event;
+                    // volatile 写发布槽位，消费者读到序号后一定能看到 event
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 取出一条日志，没有则返回 null（只能由消费线程调用）
+     */
+    public LogEvent poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        LogEvent event = slots[index];
+        slots[index] = null;
+        // 槽位留给下一圈的生产者
+        sequences.set(index, head + mask + 1);
+        head++;
+        return event;
+    }
+
+    /**
+     * 取出并清零丢弃计数
+     */
+    public long takeDropped() {
+        return dropped.getAndSet(0);
+    }
+}
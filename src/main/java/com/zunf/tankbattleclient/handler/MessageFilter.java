@@ -0,0 +1,23 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.model.message.LazyMessage;
+
+/**
+ * 广播消息的解析前过滤器
+ * 在分发线程中、解析 payload 之前执行，应只窥探字段而不调用 LazyMessage.get()；
+ * 所有监听器都不接受的消息直接丢弃，不产生任何解析开销
+ */
+@FunctionalInterface
+public interface MessageFilter {
+
+    MessageFilter ACCEPT_ALL = message -> true;
+
+    boolean test(LazyMessage message);
+
+    /**
+     * payload 顶层第 fieldNumber 个 varint 字段等于 expected（如按 roomId 过滤）
+     */
+    static MessageFilter payloadFieldEquals(int fieldNumber, long expected) {
+        return message -> message.peekPayloadVarint(fieldNumber, 0) == expected;
+    }
+}
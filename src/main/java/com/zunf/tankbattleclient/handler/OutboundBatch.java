@@ -0,0 +1,65 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.model.message.OutboundMessage;
+
+/**
+ * 发送批次缓冲区
+ * 写线程把一批待发送消息依次编码进同一个可复用的字节数组，一次写入 socket
+ * 每个写线程独占一个批次缓冲区，socket 写完后 clear 复用，相当于容量为 1 的缓冲池
+ */
+public final class OutboundBatch {
+
+    private byte[] buf;
+    private int size = 0;
+    private int count = 0;
+
+    public OutboundBatch(int initialCapacity) {
+        this.buf = new byte[Math.max(initialCapacity, 256)];
+    }
+
+    /**
+     * 编码一条消息并追加到批次尾部
+     */
+    public void append(OutboundMessage m) {
+        int frameSize = ProtocolEncoder.frameSize(m.getBody());
+        ensureCapacity(size + frameSize);
+        size += ProtocolEncoder.encodeTo(buf, size, m.getType(), m.getVersion(), m.getRequestId(), m.getBody());
+        count++;
+    }
+
+    public byte[] array() {
+        return buf;
+    }
+
+    /**
+     * 已编码的字节数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 已编码的消息条数
+     */
+    public int count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public void clear() {
+        size = 0;
+        count = 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= buf.length) {
+            return;
+        }
+        byte[] newBuf = new byte[Math.max(buf.length * 2, required)];
+        System.arraycopy(buf, 0, newBuf, 0, size);
+        buf = newBuf;
+    }
+}
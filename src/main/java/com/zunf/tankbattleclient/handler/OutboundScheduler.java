@@ -0,0 +1,230 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.enums.SendLane;
+import com.zunf.tankbattleclient.model.bo.LaneStats;
+import com.zunf.tankbattleclient.model.message.OutboundMessage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分优先级的发送队列，替代单个 LinkedBlockingQueue
+ * 1. 每个 SendLane 一个有界队列，取消息时严格按优先级（INPUT > CONTROL > BULK），
+ *    大厅轮询等批量请求不会排在操作输入前面
+ * 2. 通道满时先丢弃已被取代的可合并消息（后面还有同类型的更新消息），没有可丢的再按通道策略丢弃最旧的或拒绝新消息；
+ *    射击、请求等离散消息不会因为给可合并消息腾位置而被丢弃。被丢弃的消息交给 dropListener（用于让请求立即失败）
+ * 3. 可合并的消息（如移动状态）与队尾同类型消息合并，只保留最新的一条；
+ *    只和队尾合并，保证与中间的其他输入（如射击）的相对顺序不变
+ * 4. 记录每个通道的排队深度与排队时间
+ */
+public final class OutboundScheduler {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Lane[] lanes;
+    private final Consumer<OutboundMessage> dropListener;
+    private int total = 0;
+
+    /**
+     * @param dropListener 已入队的消息因通道满被丢弃时调用（在锁外调用）
+     */
+    public OutboundScheduler(int inputCapacity, int controlCapacity, int bulkCapacity,
+                             Consumer<OutboundMessage> dropListener) {
+        this.dropListener = dropListener;
+        SendLane[] values = SendLane.values();
+        lanes = new Lane[values.length];
+        lanes[SendLane.INPUT.ordinal()] = new Lane(SendLane.INPUT, inputCapacity);
+        lanes[SendLane.CONTROL.ordinal()] = new Lane(SendLane.CONTROL, controlCapacity);
+        lanes[SendLane.BULK.ordinal()] = new Lane(SendLane.BULK, bulkCapacity);
+    }
+
+    /**
+     * 放入一条消息
+     *
+     * @param coalesce 是否与通道队尾的同类型消息合并
+     * @return false 表示通道已满被拒绝
+     */
+    public boolean offer(OutboundMessage msg, SendLane lane, boolean coalesce) {
+        Lane l = lanes[lane.ordinal()];
+        Entry evicted = null;
+        lock.lock();
+        try {
+            Entry tail = l.queue.peekLast();
+            if (coalesce && tail != null && tail.coalesce && tail.msg.getType() == msg.getType()) {
+                // 替换消息但保留原入队时间，排队时间按最早的那条算
+                l.queue.pollLast();
+                l.queue.addLast(new Entry(msg, tail.enqueuedNanos, true));
+                l.coalesced++;
+                return true;
+            }
+            if (l.queue.size() >= l.capacity) {
+                evicted = evictSuperseded(l, msg, coalesce);
+                if (evicted == null && lane.isDropOldest()) {
+                    evicted = l.queue.pollFirst();
+                }
+                l.dropped++;
+                if (evicted == null) {
+                    return false;
+                }
+                total--;
+            }
+            l.queue.addLast(new Entry(msg, System.nanoTime(), coalesce));
+            total++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (evicted != null) {
+            dropListener.accept(evicted.msg);
+        }
+        return true;
+    }
+
+    /**
+     * 移除最旧的一条已被取代的可合并消息：队列后面或新消息中还有同类型的可合并消息
+     *
+     * @return 被移除的消息，没有可移除的返回 null
+     */
+    private Entry evictSuperseded(Lane l, OutboundMessage incoming, boolean incomingCoalesce) {
+        Entry[] entries = l.queue.toArray(new Entry[0]);
+        for (int i = 0; i < entries.length; i++) {
+            Entry e = entries[i];
+            if (!e.coalesce) {
+                continue;
+            }
+            boolean superseded = incomingCoalesce && incoming.getType() == e.msg.getType();
+            for (int j = i + 1; !superseded && j < entries.length; j++) {
+                superseded = entries[j].coalesce && entries[j].msg.getType() == e.msg.getType();
+            }
+            if (superseded) {
+                l.queue.removeFirstOccurrence(e);
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 阻塞取出优先级最高的一条消息
+     */
+    public OutboundMessage take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (total == 0) {
+                notEmpty.await();
+            }
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 最多等待 timeout 取出优先级最高的一条消息，超时返回 null
+     */
+    public OutboundMessage poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (total == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 不阻塞地按优先级取出最多 max 条消息
+     *
+     * @return 取出的条数
+     */
+    public int drainTo(List<OutboundMessage> out, int max) {
+        lock.lock();
+        try {
+            int n = 0;
+            while (n < max && total > 0) {
+                out.add(pollLocked());
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            for (Lane l : lanes) {
+                l.queue.clear();
+            }
+            total = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 各通道统计快照
+     */
+    public List<LaneStats> stats() {
+        lock.lock();
+        try {
+            List<LaneStats> result = new ArrayList<>(lanes.length);
+            for (Lane l : lanes) {
+                double avgWaitMs = l.sent == 0 ? 0 : l.totalWaitNanos / (double) l.sent / 1_000_000.0;
+                result.add(new LaneStats(l.lane, l.queue.size(), l.sent, l.dropped, l.coalesced,
+                        avgWaitMs, l.maxWaitNanos / 1_000_000.0));
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private OutboundMessage pollLocked() {
+        for (Lane l : lanes) {
+            Entry e = l.queue.pollFirst();
+            if (e != null) {
+                total--;
+                long wait = System.nanoTime() - e.enqueuedNanos;
+                l.sent++;
+                l.totalWaitNanos += wait;
+                if (wait > l.maxWaitNanos) {
+                    l.maxWaitNanos = wait;
+                }
+                return e.msg;
+            }
+        }
+        return null;
+    }
+
+    private record Entry(OutboundMessage msg, long enqueuedNanos, boolean coalesce) {
+    }
+
+    private static final class Lane {
+        final SendLane lane;
+        final int capacity;
+        final ArrayDeque<Entry> queue = new ArrayDeque<>();
+        long sent;
+        long dropped;
+        long coalesced;
+        long totalWaitNanos;
+        long maxWaitNanos;
+
+        Lane(SendLane lane, int capacity) {
+            this.lane = lane;
+            this.capacity = Math.max(1, capacity);
+        }
+    }
+}
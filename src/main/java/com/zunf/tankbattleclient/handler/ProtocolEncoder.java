@@ -1,34 +1,64 @@
 package com.zunf.tankbattleclient.handler;
 
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import com.zunf.tankbattleclient.enums.ChecksumType;
 import com.zunf.tankbattleclient.util.ByteArrUtil;
 import com.zunf.tankbattleclient.util.ProtocolUtil;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import static com.zunf.tankbattleclient.constant.ProtocolConstant.*;
 
 public class ProtocolEncoder {
 
-    public static byte[] encode(int type, byte version, int requestId, byte[] body) {
-        if (body == null) body = new byte[0];
-        int length = body.length;
+    /**
+     * 一帧编码后的总长度：协议头 + 协议体
+     */
+    public static int frameSize(MessageLite body) {
+        return HEADER_TOTAL_LENGTH + (body == null ? 0 : body.getSerializedSize());
+    }
 
-        byte[] packet = new byte[HEADER_TOTAL_LENGTH + length];
+    /**
+     * 把一帧编码到 dst[off ..) 中，调用方需保证空间足够（见 frameSize）
+     * 先预留协议头，protobuf 直接序列化到协议头之后，再回填长度和 CRC，全程不产生中间数组
+     *
+     * @return 写入的字节数
+     */
+    public static int encodeTo(byte[] dst, int off, int type, byte version, int requestId, MessageLite body) {
+        int length = 0;
+        if (body != null) {
+            length = body.getSerializedSize(); // 生成的消息类会缓存该值
+            CodedOutputStream cos = CodedOutputStream.newInstance(dst, off + HEADER_TOTAL_LENGTH, length);
+            try {
+                body.writeTo(cos);
+                cos.checkNoSpaceLeft();
+            } catch (IOException e) {
+                // 写入定长数组只会在长度不一致时失败
+                throw new UncheckedIOException(e);
+            }
+        }
+        writeHeader(dst, off, type, version, requestId, length);
+        return HEADER_TOTAL_LENGTH + length;
+    }
 
+    /**
+     * 写协议头并回填 CRC，要求 body 已经位于 dst[off + HEADER_TOTAL_LENGTH ..) 处
+     */
+    private static void writeHeader(byte[] dst, int off, int type, byte version, int requestId, int length) {
         // 1) 写 header（crc 先占位 0）
-        ByteArrUtil.writeShort(packet, OPERATION_TYPE_FIELD_OFFSET, type); // 2B type
-        packet[VERSION_FIELD_OFFSET] = version;
-        ByteArrUtil.writeInt(packet, REQUEST_ID_FIELD_OFFSET, requestId);
-        ByteArrUtil.writeInt(packet, BODY_LENGTH_FIELD_OFFSET, length);     // length at offset 2
-        ByteArrUtil.writeInt(packet, CRC32_FIELD_OFFSET, 0); // crc placeholder
-
-        // 2) 写 body
-        System.arraycopy(body, 0, packet, HEADER_TOTAL_LENGTH, length);
-
-        // 3) 计算 CRC32：header 前 6 字节 + body
-        int crc = ProtocolUtil.crc32TwoParts(packet, 0, CRC32_FIELD_OFFSET, HEADER_TOTAL_LENGTH, length);
+        ByteArrUtil.writeShort(dst, off + OPERATION_TYPE_FIELD_OFFSET, type); // 2B type
+        dst[off + VERSION_FIELD_OFFSET] = version;
+        ByteArrUtil.writeInt(dst, off + REQUEST_ID_FIELD_OFFSET, requestId);
+        ByteArrUtil.writeInt(dst, off + BODY_LENGTH_FIELD_OFFSET, length);     // length at offset 2
+        ByteArrUtil.writeInt(dst, off + CRC32_FIELD_OFFSET, 0); // crc placeholder
 
-        // 4) 回填 crc32
-        ByteArrUtil.writeInt(packet, CRC32_FIELD_OFFSET, crc);
+        // 2) 计算校验码：header 前 11 字节 + body，算法由版本号决定
+        int crc = ProtocolUtil.checksumTwoParts(ChecksumType.ofOrDefault(version & 0xFF),
+                dst, off, CRC32_FIELD_OFFSET, off + HEADER_TOTAL_LENGTH, length);
 
-        return packet;
+        // 3) 回填 crc32
+        ByteArrUtil.writeInt(dst, off + CRC32_FIELD_OFFSET, crc);
     }
 }
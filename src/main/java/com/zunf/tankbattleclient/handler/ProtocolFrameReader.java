@@ -1,57 +1,158 @@
 package com.zunf.tankbattleclient.handler;
 
+import com.zunf.tankbattleclient.enums.ChecksumType;
 import com.zunf.tankbattleclient.model.message.InboundMessage;
 import com.zunf.tankbattleclient.util.ByteArrUtil;
 import com.zunf.tankbattleclient.util.ProtocolUtil;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import static com.zunf.tankbattleclient.constant.ProtocolConstant.*;
 
+/**
+ * 协议帧解码器
+ * 使用可增长的压缩式缓冲区：[readPos, writePos) 为尚未解析的数据，协议头直接在缓冲区内解析
+ * 解出的 InboundMessage 直接引用缓冲区中的消息体（零拷贝），因此一旦有帧被交出，
+ * 当前缓冲区就不再原地压缩或复用，空间不足时换一块新缓冲区（只拷贝未解析的残留数据）
+ */
 public final class ProtocolFrameReader {
-    
-    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 
-    // 从 InputStream 读一些数据进来
+    /**
+     * 初始缓冲区大小，也是被帧引用后换新缓冲区时的默认大小
+     */
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    /**
+     * 每次读取至少预留的空间
+     */
+    private static final int MIN_READ_SIZE = 4096;
+
+    /**
+     * 缓冲区被大帧撑大后，清空时超过该大小则收缩回初始大小
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    private byte[] buf = new byte[INITIAL_CAPACITY];
+    private int readPos = 0;
+    private int writePos = 0;
+
+    /**
+     * 当前半包所需的完整帧大小，0 表示未知
+     */
+    private int pendingFrameSize = 0;
+
+    /**
+     * 当前缓冲区是否已被交出的消息引用（被引用的区域不能再被覆盖）
+     */
+    private boolean shared = false;
+
+    /**
+     * 是否校验每帧的校验码，可信的本机回环连接可以关闭
+     */
+    private final boolean verifyChecksum;
+
+    public ProtocolFrameReader() {
+        this(true);
+    }
+
+    public ProtocolFrameReader(boolean verifyChecksum) {
+        this.verifyChecksum = verifyChecksum;
+    }
+
+    // 从 InputStream 读一些数据进来，直接写入缓冲区尾部
     public void readFrom(InputStream in) throws IOException {
-        byte[] tmp = new byte[4096];
-        int n = in.read(tmp); // 阻塞
+        ensureWritable(Math.max(MIN_READ_SIZE, pendingFrameSize - readableBytes()));
+        int n = in.read(buf, writePos, buf.length - writePos); // 阻塞
         if (n < 0) throw new IOException("EOF");
-        buffer.write(tmp, 0, n);
+        writePos += n;
+    }
+
+    // 从 ByteBuffer（如 NIO 的直接缓冲区）拷贝 src 中剩余的全部数据
+    public void readFrom(ByteBuffer src) {
+        int n = src.remaining();
+        ensureWritable(n);
+        src.get(buf, writePos, n);
+        writePos += n;
     }
 
     // 尝试取出一帧；没有完整帧则返回 null
     public InboundMessage tryDecodeOne() throws IOException {
-        byte[] data = buffer.toByteArray();
-        if (data.length < HEADER_TOTAL_LENGTH) return null;
+        int readable = readableBytes();
+        if (readable < HEADER_TOTAL_LENGTH) return null;
 
-        int length = ByteArrUtil.readInt(data, BODY_LENGTH_FIELD_OFFSET);
-        if (length < 0 || length > 10_000_000) {
+        int length = ByteArrUtil.readInt(buf, readPos + BODY_LENGTH_FIELD_OFFSET);
+        if (length < 0 || length > MAX_BODY_LENGTH) {
             throw new IOException("Invalid length: " + length);
         }
 
         int frameSize = HEADER_TOTAL_LENGTH + length;
-        if (data.length < frameSize) return null; // 半包：等更多数据
+        if (readable < frameSize) {
+            // 半包：记录所需大小，下次读取时一次性预留足够空间
+            pendingFrameSize = frameSize;
+            return null;
+        }
+        pendingFrameSize = 0;
+
+        // 只对这一帧做校验（不要校验整个缓冲区），算法由帧头版本号决定
+        if (verifyChecksum && !ProtocolUtil.verify(buf, readPos, frameSize)) {
+            int frameVersion = buf[readPos + VERSION_FIELD_OFFSET] & 0xFF;
+            throw new IOException(ChecksumType.ofOrDefault(frameVersion) + " mismatch: version=" + frameVersion);
+        }
 
-        // 只对这一帧做 CRC 校验（不要校验整个 data）
-        if (!ProtocolUtil.verify(data, 0, frameSize)) {
-            throw new IOException("CRC32 mismatch");
+        int type = ByteArrUtil.readUnsignedShort(buf, readPos + OPERATION_TYPE_FIELD_OFFSET); // type=2B
+        int version = buf[readPos + VERSION_FIELD_OFFSET] & 0xFF;
+        int requestId = ByteArrUtil.readInt(buf, readPos + REQUEST_ID_FIELD_OFFSET);
+
+        // 消息体不拷贝，直接引用接收缓冲区
+        InboundMessage msg = new InboundMessage(type, (byte) version, requestId,
+                buf, readPos + HEADER_TOTAL_LENGTH, length);
+        shared = true;
+
+        // 消费掉这一帧：只移动读指针，不搬移剩余数据
+        readPos += frameSize;
+        if (readPos == writePos) {
+            reset();
         }
 
-        int type = ByteArrUtil.readUnsignedShort(data, OPERATION_TYPE_FIELD_OFFSET); // type=2B
-        int version = data[VERSION_FIELD_OFFSET] & 0xFF;
-        int requestId = ByteArrUtil.readInt(data, REQUEST_ID_FIELD_OFFSET);
+        return msg;
+    }
 
-        byte[] body = Arrays.copyOfRange(data, HEADER_TOTAL_LENGTH, frameSize);
+    private int readableBytes() {
+        return writePos - readPos;
+    }
 
-        // 消费掉这一帧
-        byte[] remaining = Arrays.copyOfRange(data, frameSize, data.length);
-        buffer.reset();
-        buffer.write(remaining);
+    /**
+     * 保证尾部至少有 minWritable 的空闲空间
+     * 缓冲区未被引用时优先把未解析的数据压缩到头部；已被引用或空间仍不够时换新缓冲区
+     */
+    private void ensureWritable(int minWritable) {
+        if (buf.length - writePos >= minWritable) {
+            return;
+        }
+        int readable = readableBytes();
+        if (!shared && buf.length - readable >= minWritable) {
+            System.arraycopy(buf, readPos, buf, 0, readable);
+        } else {
+            int newCapacity = Math.max(shared ? INITIAL_CAPACITY : buf.length * 2, readable + minWritable);
+            byte[] newBuf = new byte[newCapacity];
+            System.arraycopy(buf, readPos, newBuf, 0, readable);
+            buf = newBuf;
+            shared = false;
+        }
+        readPos = 0;
+        writePos = readable;
+    }
 
-        return new InboundMessage(type, (byte) version, requestId, body);
+    private void reset() {
+        if (shared) {
+            // 已交出的消息仍引用前面的区域，继续在尾部追加，写满后再换新缓冲区
+            return;
+        }
+        readPos = 0;
+        writePos = 0;
+        if (buf.length > MAX_RETAINED_CAPACITY) {
+            buf = new byte[INITIAL_CAPACITY];
+        }
     }
-    
 }
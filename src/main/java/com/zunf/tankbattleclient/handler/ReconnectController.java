@@ -0,0 +1,173 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.exception.BusinessException;
+import com.zunf.tankbattleclient.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 断线重连控制器
+ * 1. 退避：第 n 次尝试前等待 min(maxDelay, baseDelay * 2^n)，并在其一半到全额之间随机抖动，避免大量客户端同时重连
+ * 2. 每次尝试由 attempt 完成（建连 + 登录 + 恢复对局），服务端明确拒绝（BusinessException）或次数用尽时放弃
+ * 3. 重连期间的发送先缓存（有上限，满了丢弃最旧的），重连成功后按顺序补发
+ */
+public final class ReconnectController {
+
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final int maxAttempts;
+    private final int maxBufferedMessages;
+    private final Supplier<CompletableFuture<Void>> attempt;
+    private final Runnable onReconnected;
+    private final Consumer<Throwable> onGiveUp;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tcp-reconnect");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * 重连期间缓存的发送，由 this 加锁保护
+     */
+    private final ArrayDeque<Runnable> buffered = new ArrayDeque<>();
+
+    private volatile boolean reconnecting = false;
+    private int attempts = 0;
+
+    public ReconnectController(long baseDelayMs, long maxDelayMs, int maxAttempts, int maxBufferedMessages,
+                               Supplier<CompletableFuture<Void>> attempt,
+                               Runnable onReconnected, Consumer<Throwable> onGiveUp) {
+        this.baseDelayMs = Math.max(1, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.maxBufferedMessages = Math.max(0, maxBufferedMessages);
+        this.attempt = attempt;
+        this.onReconnected = onReconnected;
+        this.onGiveUp = onGiveUp;
+    }
+
+    public boolean isReconnecting() {
+        return reconnecting;
+    }
+
+    /**
+     * 开始重连，已在重连中则忽略
+     */
+    public synchronized void start() {
+        if (reconnecting) {
+            return;
+        }
+        reconnecting = true;
+        attempts = 0;
+        scheduleNext();
+    }
+
+    /**
+     * 取消重连（如用户主动退出），丢弃缓存的发送
+     */
+    public synchronized void cancel() {
+        reconnecting = false;
+        buffered.clear();
+    }
+
+    /**
+     * 重连期间缓存一次发送
+     *
+     * @return false 表示当前不在重连，调用方应直接发送
+     */
+    public synchronized boolean buffer(Runnable send) {
+        if (!reconnecting) {
+            return false;
+        }
+        if (maxBufferedMessages == 0) {
+            return true;
+        }
+        if (buffered.size() >= maxBufferedMessages) {
+            buffered.pollFirst();
+        }
+        buffered.addLast(send);
+        return true;
+    }
+
+    private synchronized void scheduleNext() {
+        long delay = nextDelayMs(attempts);
+        Log.info(LogCategory.NET, "将在 {}ms 后进行第 {} 次重连", delay, attempts + 1);
+        scheduler.schedule(this::runAttempt, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void runAttempt() {
+        synchronized (this) {
+            if (!reconnecting) {
+                return;
+            }
+            attempts++;
+        }
+        CompletableFuture<Void> f;
+        try {
+            f = attempt.get();
+        } catch (Exception e) {
+            f = CompletableFuture.failedFuture(e);
+        }
+        f.whenComplete((v, ex) -> {
+            if (ex == null) {
+                succeed();
+            } else {
+                fail(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+    }
+
+    private void succeed() {
+        List<Runnable> pending;
+        synchronized (this) {
+            if (!reconnecting) {
+                return;
+            }
+            reconnecting = false;
+            pending = new ArrayList<>(buffered);
+            buffered.clear();
+        }
+        Log.info(LogCategory.NET, "重连成功: 尝试 {} 次，补发 {} 条消息", attempts, pending.size());
+        onReconnected.run();
+        for (Runnable send : pending) {
+            send.run();
+        }
+    }
+
+    private void fail(Throwable cause) {
+        synchronized (this) {
+            if (!reconnecting) {
+                return;
+            }
+            Log.warn(LogCategory.NET, "第 {} 次重连失败: {}", attempts, String.valueOf(cause));
+            if (!(cause instanceof BusinessException) && attempts < maxAttempts) {
+                scheduleNext();
+                return;
+            }
+            reconnecting = false;
+            buffered.clear();
+        }
+        onGiveUp.accept(cause);
+    }
+
+    private long nextDelayMs(int attempt) {
+        long delay = baseDelayMs << Math.min(attempt, 20);
+        if (delay <= 0 || delay > maxDelayMs) {
+            delay = maxDelayMs;
+        }
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+}
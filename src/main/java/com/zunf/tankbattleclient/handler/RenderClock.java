@@ -0,0 +1,56 @@
+package com.zunf.tankbattleclient.handler;
+
+/**
+ * 渲染时钟：估计当前的服务端时间，并固定落后一个插值延迟
+ * 每收到一个 Tick 用 tickTimeStamp 与本地时钟的差值校准偏移，偏移做指数平滑以吸收到达抖动，
+ * 偏差过大（首次、服务端时间跳变）时直接对齐。渲染时刻落后服务端时间 delayMs，
+ * 保证绝大多数时候手里都有前后两个快照可以插值。
+ * 本地时钟由调用方传入（游戏循环的游戏时钟），校准和取值必须使用同一个时钟
+ */
+public final class RenderClock {
+
+    /**
+     * 偏移平滑系数
+     */
+    private static final double SMOOTHING = 0.1;
+
+    /**
+     * 超过该偏差直接对齐，不再平滑（毫秒）
+     */
+    private static final long SNAP_THRESHOLD_MS = 1000;
+
+    private final long delayMs;
+    private double offsetMs;
+    private boolean synced = false;
+
+    public RenderClock(long delayMs) {
+        this.delayMs = Math.max(0, delayMs);
+    }
+
+    /**
+     * 收到一个服务端时间
+     *
+     * @param localTimeMs 收到时的本地时钟
+     */
+    public void onServerTime(long serverTimeMs, long localTimeMs) {
+        double sample = serverTimeMs - localTimeMs;
+        if (!synced || Math.abs(sample - offsetMs) > SNAP_THRESHOLD_MS) {
+            offsetMs = sample;
+            synced = true;
+        } else {
+            offsetMs += (sample - offsetMs) * SMOOTHING;
+        }
+    }
+
+    /**
+     * 本地时钟 localTimeMs 时应渲染的服务端时刻
+     */
+    public long renderTime(long localTimeMs) {
+        return Math.round(localTimeMs + offsetMs) - delayMs;
+    }
+
+    public void reset() {
+        synced = false;
+        offsetMs = 0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.google.protobuf.ByteString;
+import com.zunf.tankbattleclient.exception.ErrorCode;
+import com.zunf.tankbattleclient.model.bo.ResponseBo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 幂等查询的请求缓存
+ * 1. 单飞：相同消息类型 + 相同请求体的并发调用共享同一个进行中的请求
+ * 2. TTL：成功的响应在 ttlMs 内直接复用，不再发请求
+ * 3. 失效：invalidateAll 清空缓存，失效之前发出、之后才返回的响应不会写入缓存
+ */
+public final class RequestCache {
+
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries = new HashMap<>();
+
+    /**
+     * 失效代数，每次 invalidateAll 加一
+     */
+    private long generation = 0;
+
+    private record Key(int type, ByteString payload) {
+    }
+
+    private static final class Entry {
+        CompletableFuture<ResponseBo> inFlight;
+        ResponseBo response;
+        long expiresAtNanos;
+    }
+
+    public RequestCache(long ttlMs) {
+        this.ttlNanos = Math.max(0, ttlMs) * 1_000_000L;
+    }
+
+    /**
+     * 取缓存或进行中的请求，都没有时调用 loader 发出请求
+     * 返回的 future 由 loader 的线程（或命中缓存时由调用线程）完成，调用方负责切换线程
+     */
+    public synchronized CompletableFuture<ResponseBo> get(int type, ByteString payload,
+                                                           Supplier<CompletableFuture<ResponseBo>> loader) {
+        Key key = new Key(type, payload);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.inFlight != null) {
+                return entry.inFlight;
+            }
+            if (System.nanoTime() - entry.expiresAtNanos < 0) {
+                return CompletableFuture.completedFuture(entry.response);
+            }
+        }
+
+        Entry e = new Entry();
+        long gen = generation;
+        CompletableFuture<ResponseBo> f = loader.get();
+        e.inFlight = f;
+        entries.put(key, e);
+        f.whenComplete((r, ex) -> onComplete(key, e, gen, r, ex));
+        return f;
+    }
+
+    /**
+     * 清空所有缓存（进行中的请求仍然共享，但结果不再缓存）
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    private synchronized void onComplete(Key key, Entry e, long gen, ResponseBo r, Throwable ex) {
+        if (entries.get(key) != e) {
+            return;
+        }
+        boolean ok = ex == null && r.getResponse().getCode() == ErrorCode.OK.getCode();
+        if (!ok || gen != generation || ttlNanos == 0) {
+            entries.remove(key);
+            return;
+        }
+        e.inFlight = null;
+        e.response = r;
+        e.expiresAtNanos = System.nanoTime() + ttlNanos;
+    }
+}
@@ -0,0 +1,92 @@
+package com.zunf.tankbattleclient.handler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 按大小滚动的日志文件：超过 maxBytes 时 xxx.log 依次重命名为 xxx.log.1、xxx.log.2 ...，最多保留 maxFiles 个旧文件
+ * 只由日志线程使用，非线程安全
+ */
+public final class RollingFileWriter {
+
+    private final Path path;
+    private final long maxBytes;
+    private final int maxFiles;
+
+    private BufferedWriter writer;
+    private long size;
+
+    public RollingFileWriter(Path path, long maxBytes, int maxFiles) throws IOException {
+        this.path = path;
+        this.maxBytes = Math.max(1024, maxBytes);
+        this.maxFiles = Math.max(0, maxFiles);
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open();
+    }
+
+    public void write(String line) throws IOException {
+        long bytes = utf8Length(line) + 1;
+        if (size + bytes > maxBytes && size > 0) {
+            roll();
+        }
+        writer.write(line);
+        writer.newLine();
+        size += bytes;
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * UTF-8 编码后的字节数，不为此单独编码一次
+     */
+    private static long utf8Length(String s) {
+        long bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            bytes += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+        }
+        return bytes;
+    }
+
+    private void open() throws IOException {
+        writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8));
+        size = Files.size(path);
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        if (maxFiles == 0) {
+            Files.deleteIfExists(path);
+        } else {
+            Files.deleteIfExists(rolled(maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path from = rolled(i);
+                if (Files.exists(from)) {
+                    Files.move(from, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path rolled(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+}
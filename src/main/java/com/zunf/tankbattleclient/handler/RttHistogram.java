@@ -0,0 +1,55 @@
+package com.zunf.tankbattleclient.handler;
+
+import java.util.Arrays;
+
+/**
+ * 滚动窗口直方图
+ * 保留最近 capacity 个样本（纳秒），按需排序求分位数；心跳频率很低，取快照时排序的开销可以忽略
+ */
+public final class RttHistogram {
+
+    private final long[] samples;
+    private int next = 0;
+    private int size = 0;
+
+    public RttHistogram(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 窗口内样本的有序拷贝
+     */
+    public synchronized long[] sortedSnapshot() {
+        long[] copy = Arrays.copyOf(samples, size);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    public synchronized void clear() {
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * 从有序数组中取分位数（最近秩法），percentile 取值 0~100
+     */
+    public static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+    }
+}
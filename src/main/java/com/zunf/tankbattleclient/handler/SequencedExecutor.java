@@ -0,0 +1,91 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.util.Log;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 按 key 保序的分条带执行器
+ * 任务按 key 映射到固定的条带（lane），同一条带内的任务严格按提交顺序串行执行，
+ * 不同条带之间在底层线程池上并行执行
+ * 例如按 GameMsgType 作为 key，连续的 GAME_TICK 一定按到达顺序处理
+ */
+public final class SequencedExecutor {
+
+    private final Executor pool;
+    private final Lane[] lanes;
+
+    /**
+     * 所有条带中排队任务总数的上限，满了之后提交线程阻塞等待（背压到读线程）
+     * 不能像 CallerRunsPolicy 那样让提交线程自己执行，否则会破坏顺序
+     */
+    private final Semaphore capacity;
+
+    public SequencedExecutor(Executor pool, int laneCount, int maxPendingTasks) {
+        this.pool = pool;
+        this.lanes = new Lane[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane();
+        }
+        this.capacity = new Semaphore(maxPendingTasks);
+    }
+
+    /**
+     * 提交任务，相同 key 的任务按提交顺序执行
+     */
+    public void execute(int key, Runnable task) {
+        capacity.acquireUninterruptibly();
+        Lane lane = lanes[laneIndex(key)];
+        lane.tasks.add(task);
+        lane.schedule();
+    }
+
+    private int laneIndex(int key) {
+        // 打散连续的 key，避免相邻消息类型落在同一条带
+        int h = key * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), lanes.length);
+    }
+
+    /**
+     * 一个条带：任务队列 + 是否已在线程池中调度的标记
+     * 同一时刻最多只有一个线程在执行某个条带，保证串行
+     */
+    private final class Lane implements Runnable {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                pool.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Throwable e) {
+                        // 单个任务异常不影响后续任务
+                        Log.error(LogCategory.DISPATCH, "SequencedExecutor 任务执行异常", e);
+                    } finally {
+                        capacity.release();
+                    }
+                }
+                scheduled.set(false);
+                // 释放标记后可能有新任务入队，且提交方看到的是旧标记而没有调度，这里补一次
+                if (tasks.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+}
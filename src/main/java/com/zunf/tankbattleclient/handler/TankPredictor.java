@@ -0,0 +1,224 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.enums.Direction;
+import com.zunf.tankbattleclient.model.bo.CollisionGrid;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 本地坦克预测
+ * 按键一变化就在本地按同样的移动规则（匀速、撞墙停下）推进自己的坦克，不等服务端回包；
+ * 发出但服务端还没确认（Tank.lastInputSeq 未覆盖）的输入留在历史里。
+ * 收到权威位置时从该位置出发，按时间顺序重放未确认的输入得到新的预测位置，
+ * 新旧预测之间的误差不直接跳变，而是按时间指数衰减掉（误差过大时直接对齐）。
+ * 所有方法都在 UI 线程中调用，时间单位毫秒（本地单调时钟）
+ */
+public final class TankPredictor {
+
+    /**
+     * 单步最大移动距离（px），保证撞墙检测不会穿过一个格子
+     */
+    private static final double MAX_STEP = 2;
+
+    /**
+     * 输入超过该时长仍未被确认，认为服务端不回传输入序号，停止预测（毫秒）
+     */
+    private static final long UNACKED_TIMEOUT_MS = 2000;
+
+    /**
+     * 一条移动输入：从 timeMs 起按 direction 移动（pressed=false 表示停下）
+     */
+    private record Input(int seq, Direction direction, boolean pressed, long timeMs) {
+    }
+
+    private final CollisionGrid grid;
+    private final double speedPxPerMs;
+    private final double halfSize;
+    private final double correctionMs;
+    private final double snapDistance;
+
+    private final Deque<Input> pending = new ArrayDeque<>();
+    private Input active;
+    /**
+     * 服务端已确认的最新输入，即服务端正在执行的移动状态
+     */
+    private Input acknowledged;
+    private int lastSeq = 0;
+    private boolean enabled = true;
+
+    // 当前预测状态
+    private double x, y;
+    private Direction direction;
+    private long simTimeMs;
+
+    // 待衰减的显示误差
+    private double errorX, errorY;
+    private long lastFrameMs;
+
+    /**
+     * @param speedPxPerSec 坦克移动速度（需与服务端一致）
+     * @param halfSize      坦克碰撞盒半边长（px）
+     * @param correctionMs  误差修正的时间常数，越小越快贴合服务端
+     * @param snapDistance  误差超过该距离直接对齐
+     */
+    public TankPredictor(CollisionGrid grid, double speedPxPerSec, double halfSize, long correctionMs,
+                         double snapDistance) {
+        this.grid = grid;
+        this.speedPxPerMs = speedPxPerSec / 1000.0;
+        this.halfSize = halfSize;
+        this.correctionMs = Math.max(1, correctionMs);
+        this.snapDistance = snapDistance;
+    }
+
+    /**
+     * 是否在预测，服务端不回传输入序号时会自动关闭
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 以服务端位置初始化（出生、复活）
+     */
+    public void reset(double x, double y, Direction direction, long nowMs) {
+        this.x = x;
+        this.y = y;
+        this.direction = direction;
+        this.simTimeMs = nowMs;
+        this.lastFrameMs = nowMs;
+        this.errorX = 0;
+        this.errorY = 0;
+    }
+
+    /**
+     * 本地发出一条移动输入，立即生效；重发的保活（序号不变）忽略
+     */
+    public void onInput(int seq, Direction direction, boolean pressed, long nowMs) {
+        if (!enabled || seq <= lastSeq) {
+            return;
+        }
+        lastSeq = seq;
+        advance(nowMs);
+        active = new Input(seq, direction, pressed, nowMs);
+        pending.addLast(active);
+        if (pressed) {
+            this.direction = direction;
+        }
+    }
+
+    /**
+     * 推进到 nowMs
+     */
+    public void advance(long nowMs) {
+        if (nowMs > simTimeMs) {
+            simulate(active, nowMs - simTimeMs);
+            simTimeMs = nowMs;
+        }
+    }
+
+    /**
+     * 收到服务端权威状态后校正
+     *
+     * @param serverTimeMs  该状态在本地时钟上的估计时刻（收到时间减去单程延迟）
+     * @param lastInputSeq  服务端已处理的最新输入序号
+     */
+    public void reconcile(double serverX, double serverY, Direction serverDirection, int lastInputSeq,
+                          long serverTimeMs, long nowMs) {
+        if (!enabled) {
+            return;
+        }
+        advance(nowMs);
+        double oldDisplayX = getX();
+        double oldDisplayY = getY();
+
+        // 已确认的输入出队，最后一条就是服务端当前正在执行的输入
+        while (!pending.isEmpty() && pending.peekFirst().seq() <= lastInputSeq) {
+            acknowledged = pending.pollFirst();
+        }
+        if (!pending.isEmpty() && nowMs - pending.peekFirst().timeMs() > UNACKED_TIMEOUT_MS) {
+            enabled = false;
+            pending.clear();
+            return;
+        }
+        Input current = acknowledged;
+
+        // 从权威状态出发重放未确认的输入
+        x = serverX;
+        y = serverY;
+        direction = serverDirection;
+        long t = Math.min(serverTimeMs, nowMs);
+        for (Input input : pending) {
+            if (input.timeMs() > t) {
+                simulate(current, input.timeMs() - t);
+                t = input.timeMs();
+            }
+            current = input;
+            if (input.pressed()) {
+                direction = input.direction();
+            }
+        }
+        simulate(current, nowMs - t);
+        simTimeMs = nowMs;
+
+        // 新旧显示位置的差作为误差慢慢消掉
+        errorX = oldDisplayX - x;
+        errorY = oldDisplayY - y;
+        if (errorX * errorX + errorY * errorY > snapDistance * snapDistance) {
+            errorX = 0;
+            errorY = 0;
+        }
+    }
+
+    /**
+     * 每帧调用：推进预测并衰减误差
+     */
+    public void update(long nowMs) {
+        advance(nowMs);
+        double decay = Math.exp(-Math.max(0, nowMs - lastFrameMs) / correctionMs);
+        lastFrameMs = nowMs;
+        errorX *= decay;
+        errorY *= decay;
+    }
+
+    /**
+     * 显示位置 = 预测位置 + 未消除的误差
+     */
+    public double getX() {
+        return x + errorX;
+    }
+
+    public double getY() {
+        return y + errorY;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    private void simulate(Input input, long durationMs) {
+        if (input == null || !input.pressed() || durationMs <= 0) {
+            return;
+        }
+        double dx = 0, dy = 0;
+        switch (input.direction()) {
+            case UP -> dy = -1;
+            case DOWN -> dy = 1;
+            case LEFT -> dx = -1;
+            case RIGHT -> dx = 1;
+        }
+        double remaining = durationMs * speedPxPerMs;
+        while (remaining > 0) {
+            double step = Math.min(MAX_STEP, remaining);
+            double nx = x + dx * step;
+            double ny = y + dy * step;
+            // 没有地图时不做碰撞；已经卡在墙里时（服务端碰撞盒略有不同）允许移动，交给校正
+            if (!grid.isEmpty() && grid.overlaps(nx, ny, halfSize) && !grid.overlaps(x, y, halfSize)) {
+                break;
+            }
+            x = nx;
+            y = ny;
+            remaining -= step;
+        }
+    }
+}
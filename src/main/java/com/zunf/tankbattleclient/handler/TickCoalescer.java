@@ -0,0 +1,155 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.google.protobuf.ByteString;
+import com.zunf.tankbattleclient.model.bo.CoalescedTick;
+import com.zunf.tankbattleclient.protobuf.game.match.MatchProto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tick 合并器（最新者胜出）
+ * 分发线程不断放入 Tick，UI 线程每次取走时，每个房间只保留最新的一个 Tick，
+ * 但被跳过的 Tick 中的语义事件会被保留下来：
+ * 1. 受击：任意一个 Tick 中血量下降的玩家（用于受击动画和 hit.mp3）
+ * 2. 地图变化：最新 Tick 没带整张地图时，沿用被跳过 Tick 中最新的整张地图，
+ *    并按顺序拼上这之后所有 Tick 的格子变化（mapChanges）
+ * 3. 游戏结束：任意一个 Tick 结束了游戏，合并结果即为结束
+ * 这样 UI 线程落后时只需处理一帧就能追上，而不是逐个回放积压的 Tick
+ */
+public final class TickCoalescer {
+
+    /**
+     * 每个房间待 UI 线程取走的合并结果
+     */
+    private final Map<Long, Pending> pendingByRoom = new LinkedHashMap<>();
+
+    /**
+     * 每个房间每个玩家最近一次的血量，用于在合并前检测受击
+     */
+    private final Map<Long, Map<Long, Integer>> lastLifeByRoom = new HashMap<>();
+
+    /**
+     * 是否已经调度了一次取走（drain）
+     */
+    private boolean drainScheduled = false;
+
+    /**
+     * 放入一个 Tick
+     *
+     * @return true 表示当前没有待执行的取走任务，调用方需要调度一次 drain
+     */
+    public synchronized boolean offer(MatchProto.Tick tick) {
+        long roomId = tick.getRoomId();
+        Pending pending = pendingByRoom.computeIfAbsent(roomId, k -> new Pending());
+        pending.merge(tick, detectHits(roomId, tick));
+
+        if (tick.getIsGameOver()) {
+            lastLifeByRoom.remove(roomId);
+        }
+
+        if (drainScheduled) {
+            return false;
+        }
+        drainScheduled = true;
+        return true;
+    }
+
+    /**
+     * 取走所有房间的合并结果
+     */
+    public synchronized List<CoalescedTick> drain() {
+        drainScheduled = false;
+        if (pendingByRoom.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CoalescedTick> result = new ArrayList<>(pendingByRoom.size());
+        for (Pending pending : pendingByRoom.values()) {
+            result.add(pending.build());
+        }
+        pendingByRoom.clear();
+        return result;
+    }
+
+    /**
+     * 清空某个房间的状态（离开对局时调用）
+     */
+    public synchronized void clearRoom(long roomId) {
+        pendingByRoom.remove(roomId);
+        lastLifeByRoom.remove(roomId);
+    }
+
+    private Set<Long> detectHits(long roomId, MatchProto.Tick tick) {
+        Map<Long, Integer> lastLife = lastLifeByRoom.computeIfAbsent(roomId, k -> new HashMap<>());
+        Set<Long> hits = null;
+        for (MatchProto.Tank tank : tick.getTanksList()) {
+            Integer previous = lastLife.put(tank.getPlayerId(), tank.getLife());
+            if (previous != null && tank.getLife() < previous) {
+                if (hits == null) {
+                    hits = new HashSet<>();
+                }
+                hits.add(tank.getPlayerId());
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * 单个房间尚未取走的合并状态
+     */
+    private static final class Pending {
+
+        private MatchProto.Tick latest;
+        private List<ByteString> latestMapData;
+        private final List<MatchProto.MapCellChange> mapChanges = new ArrayList<>();
+        private MatchProto.Tick gameOverTick;
+        private final Set<Long> hitPlayerIds = new HashSet<>();
+        private int mergedCount = 0;
+
+        void merge(MatchProto.Tick tick, Set<Long> hits) {
+            latest = tick;
+            mergedCount++;
+            if (tick.getMapDataCount() > 0) {
+                // 整张地图覆盖之前所有的格子变化
+                latestMapData = tick.getMapDataList();
+                mapChanges.clear();
+            }
+            mapChanges.addAll(tick.getMapChangesList());
+            if (tick.getIsGameOver() && gameOverTick == null) {
+                gameOverTick = tick;
+            }
+            if (hits != null) {
+                hitPlayerIds.addAll(hits);
+            }
+        }
+
+        CoalescedTick build() {
+            MatchProto.Tick tick = latest;
+            boolean missingMap = tick.getMapDataCount() == 0 && latestMapData != null;
+            boolean missingChanges = mapChanges.size() != tick.getMapChangesCount();
+            boolean missingGameOver = gameOverTick != null && !tick.getIsGameOver();
+            if (missingMap || missingChanges || missingGameOver) {
+                MatchProto.Tick.Builder builder = tick.toBuilder();
+                if (missingMap) {
+                    builder.addAllMapData(latestMapData);
+                }
+                if (missingChanges) {
+                    builder.clearMapChanges().addAllMapChanges(mapChanges);
+                }
+                if (missingGameOver) {
+                    builder.setIsGameOver(true)
+                            .setWinnerPlayerId(gameOverTick.getWinnerPlayerId())
+                            .setEndReason(gameOverTick.getEndReason());
+                }
+                tick = builder.build();
+            }
+            return new CoalescedTick(tick, hitPlayerIds, mergedCount);
+        }
+    }
+}
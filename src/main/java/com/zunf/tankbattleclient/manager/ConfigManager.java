@@ -1,5 +1,10 @@
 package com.zunf.tankbattleclient.manager;
 
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.enums.LogLevel;
+import com.zunf.tankbattleclient.enums.SendLane;
+import com.zunf.tankbattleclient.enums.TransportMode;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
@@ -66,8 +71,215 @@ public final class ConfigManager {
         return getString("backend.url", "http://localhost:8080");
     }
 
+    /**
+     * 首选协议版本，同时决定帧校验算法：1=CRC32，2=CRC32C
+     */
     public int getProtocolVersion() {
         return getInt("protocol.version", 1);
     }
-}
 
+    /**
+     * 连接本机回环地址时是否信任链路、跳过收包校验
+     */
+    public boolean isChecksumTrustLoopback() {
+        return Boolean.parseBoolean(getString("protocol.checksum.trust_loopback", "false").trim());
+    }
+
+    /**
+     * 心跳间隔（毫秒），<= 0 表示不发送心跳
+     */
+    public int getHeartbeatIntervalMs() {
+        return getInt("heartbeat.interval_ms", 2000);
+    }
+
+    /**
+     * 连续丢失多少次心跳后判定连接断开
+     */
+    public int getHeartbeatMaxMissed() {
+        return getInt("heartbeat.max_missed", 3);
+    }
+
+    /**
+     * 重连退避的初始等待（毫秒），每次失败翻倍
+     */
+    public int getReconnectBaseDelayMs() {
+        return getInt("reconnect.base_delay_ms", 500);
+    }
+
+    /**
+     * 重连退避的最长等待（毫秒）
+     */
+    public int getReconnectMaxDelayMs() {
+        return getInt("reconnect.max_delay_ms", 10_000);
+    }
+
+    /**
+     * 最多重连次数，用尽后回到登录界面
+     */
+    public int getReconnectMaxAttempts() {
+        return getInt("reconnect.max_attempts", 8);
+    }
+
+    /**
+     * 重连期间最多缓存多少条待发送消息
+     */
+    public int getReconnectBufferSize() {
+        return getInt("reconnect.buffer_size", 128);
+    }
+
+    /**
+     * 发送通道容量（tcp_client.send.capacity.input / control / bulk）
+     */
+    public int getSendLaneCapacity(SendLane lane, int def) {
+        return getInt("tcp_client.send.capacity." + lane.name().toLowerCase(), def);
+    }
+
+    /**
+     * 按住移动键期间重发移动状态的间隔（毫秒），<= 0 表示不重发
+     */
+    public int getInputKeepAliveMs() {
+        return getInt("input.keepalive_ms", 250);
+    }
+
+    /**
+     * 幂等查询（如房间分页）响应的缓存时长（毫秒），0 表示只合并并发请求、不缓存
+     */
+    public int getRequestCacheTtlMs() {
+        return getInt("request_cache.ttl_ms", 2000);
+    }
+
+    /**
+     * 是否向服务端确认 tick 以接收增量 tick（需服务端支持，默认关闭），关闭后服务端只会发送完整 tick
+     */
+    public boolean isTickDeltaEnabled() {
+        return Boolean.parseBoolean(getString("tick_delta.enabled", "false").trim());
+    }
+
+    /**
+     * 保留多少个已还原的 tick 作为增量基线（应覆盖一个 RTT 内收到的 tick 数）
+     */
+    public int getTickDeltaHistory() {
+        return getInt("tick_delta.history", 32);
+    }
+
+    /**
+     * 插值延迟（毫秒）：渲染时刻落后服务端时间的量，应大于 Tick 间隔加上到达抖动
+     */
+    public int getInterpolationDelayMs() {
+        return getInt("interpolation.delay_ms", 100);
+    }
+
+    /**
+     * 游戏循环每秒模拟步数（固定步长）
+     */
+    public int getGameLoopStepsPerSecond() {
+        return getInt("game_loop.steps_per_second", 60);
+    }
+
+    /**
+     * 渲染帧率上限，0 表示跟随屏幕刷新率
+     */
+    public int getGameLoopMaxFps() {
+        return getInt("game_loop.max_fps", 0);
+    }
+
+    /**
+     * 是否对自己的坦克做本地预测（需要服务端在 Tank.lastInputSeq 回传输入序号，默认关闭）
+     */
+    public boolean isPredictionEnabled() {
+        return Boolean.parseBoolean(getString("prediction.enabled", "false").trim());
+    }
+
+    /**
+     * 本地预测使用的坦克移动速度（像素/秒），需与服务端一致
+     */
+    public int getPredictionTankSpeed() {
+        return getInt("prediction.tank_speed", 100);
+    }
+
+    /**
+     * 预测误差修正的时间常数（毫秒），越小越快贴合服务端位置
+     */
+    public int getPredictionCorrectionMs() {
+        return getInt("prediction.correction_ms", 100);
+    }
+
+    /**
+     * 是否对子弹做本地推算（Tick 迟到时外推、撞墙提前消失）
+     */
+    public boolean isBulletSimulationEnabled() {
+        return Boolean.parseBoolean(getString("bullet_sim.enabled", "true").trim());
+    }
+
+    /**
+     * 子弹推算使用的飞行速度（像素/秒），需与服务端一致
+     */
+    public int getBulletSimulationSpeed() {
+        return getInt("bullet_sim.speed", 300);
+    }
+
+    /**
+     * 超过最新快照后最多外推的时长（毫秒）
+     */
+    public int getBulletSimulationMaxExtrapolateMs() {
+        return getInt("bullet_sim.max_extrapolate_ms", 250);
+    }
+
+    public TransportMode getTransportMode() {
+        return TransportMode.of(getString("tcp_client.transport", TransportMode.BLOCKING.getCode()));
+    }
+
+    /**
+     * 写线程单个批次的字节上限（达到后立即写出）
+     */
+    public int getWriteMaxBatchBytes() {
+        return getInt("tcp_client.write.max_batch_bytes", 64 * 1024);
+    }
+
+    /**
+     * 写线程取到第一条消息后，最多再等待多少毫秒以凑成更大的批次，0 表示不等待
+     */
+    public int getWriteMaxLingerMs() {
+        return getInt("tcp_client.write.max_linger_ms", 0);
+    }
+
+    /**
+     * 日志分类的级别（log.level.<分类>），未单独配置时使用全局级别 log.level
+     */
+    public LogLevel getLogLevel(LogCategory category) {
+        LogLevel global = LogLevel.of(getString("log.level", "info"), LogLevel.INFO);
+        return LogLevel.of(getString("log.level." + category.name().toLowerCase(), null), global);
+    }
+
+    /**
+     * 日志输出目标：stdout / file
+     */
+    public String getLogOutput() {
+        return getString("log.output", "stdout").trim();
+    }
+
+    public String getLogFilePath() {
+        return getString("log.file.path", "logs/tank-battle-client.log").trim();
+    }
+
+    /**
+     * 单个日志文件的大小上限（字节），超过后滚动
+     */
+    public int getLogFileMaxBytes() {
+        return getInt("log.file.max_bytes", 10 * 1024 * 1024);
+    }
+
+    /**
+     * 滚动后保留的旧日志文件个数
+     */
+    public int getLogFileMaxFiles() {
+        return getInt("log.file.max_files", 5);
+    }
+
+    /**
+     * 日志环形缓冲区容量（条），写满后新日志被丢弃并计数
+     */
+    public int getLogBufferSize() {
+        return getInt("log.buffer_size", 8192);
+    }
+}
@@ -4,14 +4,37 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.MessageLite;
 import com.google.protobuf.Parser;
 import com.zunf.tankbattleclient.enums.GameMsgType;
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.enums.LogLevel;
+import com.zunf.tankbattleclient.enums.SendLane;
+import com.zunf.tankbattleclient.enums.ViewEnum;
+import com.zunf.tankbattleclient.exception.BusinessException;
+import com.zunf.tankbattleclient.exception.ErrorCode;
 import com.zunf.tankbattleclient.handler.CycleAtomicInteger;
+import com.zunf.tankbattleclient.handler.DeltaTickDecoder;
+import com.zunf.tankbattleclient.handler.HeartbeatMonitor;
+import com.zunf.tankbattleclient.handler.LogRateLimiter;
+import com.zunf.tankbattleclient.handler.MessageFilter;
+import com.zunf.tankbattleclient.handler.ReconnectController;
+import com.zunf.tankbattleclient.handler.RequestCache;
+import com.zunf.tankbattleclient.model.bo.CoalescedTick;
 import com.zunf.tankbattleclient.model.bo.ResponseBo;
+import com.zunf.tankbattleclient.model.bo.RttStats;
 import com.zunf.tankbattleclient.model.message.InboundMessage;
+import com.zunf.tankbattleclient.model.message.LazyMessage;
+import com.zunf.tankbattleclient.model.message.OutboundMessage;
 import com.zunf.tankbattleclient.protobuf.CommonProto;
+import com.zunf.tankbattleclient.protobuf.game.auth.AuthProto;
+import com.zunf.tankbattleclient.protobuf.game.match.MatchProto;
+import com.zunf.tankbattleclient.util.Log;
+import com.zunf.tankbattleclient.util.MessageUtil;
 import javafx.application.Platform;
 
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Consumer;
 
 /**
@@ -37,6 +60,12 @@ public final class GameConnectionManager extends TcpClientManager {
         return INSTANCE;
     }
 
+    /**
+     * 逐条收发日志采样：每秒最多输出的条数
+     */
+    private static final LogRateLimiter SEND_LOG_LIMIT = new LogRateLimiter(20);
+    private static final LogRateLimiter RECEIVE_LOG_LIMIT = new LogRateLimiter(20);
+
     private final MsgCallbackEventManager msgCallbackEventManager;
 
     private final RequestCallbackEventManager requestCallbackEventManager;
@@ -44,57 +73,338 @@ public final class GameConnectionManager extends TcpClientManager {
 
     private final CycleAtomicInteger requestIdGenerator = new CycleAtomicInteger();
 
+    private final HeartbeatMonitor heartbeatMonitor;
+
+    private final ReconnectController reconnectController;
+
+    /**
+     * 可缓存的幂等查询类型
+     */
+    private static final Set<GameMsgType> CACHEABLE_TYPES = EnumSet.of(GameMsgType.PAGE_ROOM);
+
+    /**
+     * 收到这些广播说明房间列表已变化，清空查询缓存
+     */
+    private static final Set<GameMsgType> CACHE_INVALIDATING_TYPES = EnumSet.of(
+            GameMsgType.PLAYER_JOIN_ROOM, GameMsgType.PLAYER_LEAVE_ROOM, GameMsgType.PLAYER_READY,
+            GameMsgType.GAME_STARTED);
+
+    private final RequestCache requestCache;
+
+    /**
+     * 当前所在对局的房间ID，断线重连后据此恢复对局，不在对局中为 null
+     */
+    private volatile Long activeRoomId;
+
+    /**
+     * 增量 Tick 还原器，为 null 表示不确认 tick、只接收完整 Tick
+     */
+    private final DeltaTickDecoder tickDecoder;
+
+    /**
+     * 对局恢复后在 UI 线程中回调，用于重新发送当前输入状态
+     */
+    private volatile Runnable matchResumedListener;
+
 
     private GameConnectionManager(String host, int port) {
         super(host, port);
         msgCallbackEventManager = MsgCallbackEventManager.getInstance();
         requestCallbackEventManager = RequestCallbackEventManager.getInstance();
-        System.out.println("创建游戏连接管理器");
+        heartbeatMonitor = new HeartbeatMonitor(
+                ConfigManager.getInstance().getHeartbeatIntervalMs(),
+                ConfigManager.getInstance().getHeartbeatMaxMissed(),
+                requestIdGenerator::getNextRequestId,
+                (requestId, clientTimeMs) -> super.send(GameMsgType.PING.getCode(), getOutboundVersion(), requestId,
+                        CommonProto.Ping.newBuilder().setClientTimeMs(clientTimeMs).build()),
+                this::onHeartbeatDead);
+        ConfigManager config = ConfigManager.getInstance();
+        requestCache = new RequestCache(config.getRequestCacheTtlMs());
+        tickDecoder = config.isTickDeltaEnabled() ? new DeltaTickDecoder(config.getTickDeltaHistory()) : null;
+        reconnectController = new ReconnectController(
+                config.getReconnectBaseDelayMs(),
+                config.getReconnectMaxDelayMs(),
+                config.getReconnectMaxAttempts(),
+                config.getReconnectBufferSize(),
+                this::resumeSession,
+                this::onReconnected,
+                this::onReconnectGiveUp);
+        Log.debug(LogCategory.NET, "创建游戏连接管理器");
+    }
+
+    @Override
+    public void connect() {
+        super.connect();
+        heartbeatMonitor.start();
+    }
+
+    /**
+     * 主动关闭连接（如退出登录），同时取消正在进行的重连
+     */
+    @Override
+    public void close() {
+        reconnectController.cancel();
+        closeSilently();
+    }
+
+    private void closeSilently() {
+        heartbeatMonitor.stop();
+        super.close();
+    }
+
+    /**
+     * 进入对局，断线重连后会请求恢复该对局
+     */
+    public void setActiveMatch(long roomId) {
+        activeRoomId = roomId;
+        resetTickDecoder();
+    }
+
+    /**
+     * 离开对局
+     */
+    public void clearActiveMatch() {
+        activeRoomId = null;
+        resetTickDecoder();
+    }
+
+    private void resetTickDecoder() {
+        if (tickDecoder != null) {
+            tickDecoder.reset();
+        }
+    }
+
+    public boolean isReconnecting() {
+        return reconnectController.isReconnecting();
+    }
+
+    /**
+     * 当前心跳 RTT 统计（用于调整插值延迟和请求超时）
+     */
+    public RttStats getRttStats() {
+        return heartbeatMonitor.stats();
+    }
+
+    /**
+     * 平滑 RTT（毫秒），收到 PONG 时更新，可以每帧读取
+     */
+    public double getSmoothedRttMs() {
+        return heartbeatMonitor.smoothedRttMs();
+    }
+
+    /**
+     * 心跳连续丢失：主动断开，不再等读失败
+     */
+    private void onHeartbeatDead() {
+        abort(new IOException("心跳超时"));
+    }
+
+    /**
+     * 连接故障（非主动关闭）：已登录则自动重连
+     */
+    @Override
+    protected void onDisconnected(Exception e) {
+        heartbeatMonitor.stop();
+        requestCache.invalidateAll();
+        // 新连接上服务端不再认可旧的确认，基线从下一个完整 Tick 重新开始
+        resetTickDecoder();
+        Log.warn(LogCategory.NET, "连接断开: {}", e.getMessage());
+        if (UserInfoManager.getInstance().getToken() == null) {
+            return;
+        }
+        MessageUtil.showWarning("连接断开，正在重连...");
+        reconnectController.start();
+    }
+
+    /**
+     * 一次重连尝试：建连 -> 用缓存的 token 重新登录 -> 在对局中则请求恢复对局
+     * 消息监听都注册在 MsgCallbackEventManager 单例上，与连接无关，重连后无需重新注册
+     */
+    private CompletableFuture<Void> resumeSession() {
+        String token = UserInfoManager.getInstance().getToken();
+        if (token == null) {
+            return CompletableFuture.failedFuture(new BusinessException(ErrorCode.UNAUTHORIZED));
+        }
+        try {
+            connect();
+        } catch (RuntimeException e) {
+            closeSilently();
+            return CompletableFuture.failedFuture(e);
+        }
+        return sendAndListenFuture(GameMsgType.LOGIN, AuthProto.LoginRequest.newBuilder().setToken(token).build())
+                .thenCompose(login -> {
+                    checkOk(login);
+                    Long roomId = activeRoomId;
+                    Long playerId = UserInfoManager.getInstance().getPlayerId();
+                    if (roomId == null || playerId == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    MatchProto.ResumeReq req = MatchProto.ResumeReq.newBuilder()
+                            .setPlayerId(playerId)
+                            .setRoomId(roomId)
+                            .build();
+                    return sendAndListenFuture(GameMsgType.RESUME_MATCH, req)
+                            .thenAccept(resume -> {
+                                if (resume.getResponse().getCode() != ErrorCode.OK.getCode()) {
+                                    // 登录已恢复，只是对局已不存在（比如已经结束），不算重连失败
+                                    Log.info(LogCategory.NET, "恢复对局失败: code={}", resume.getResponse().getCode());
+                                    activeRoomId = null;
+                                    Platform.runLater(() -> MessageUtil.showWarning("对局已结束，无法恢复"));
+                                }
+                            });
+                })
+                .whenComplete((r, e) -> {
+                    if (e != null) {
+                        closeSilently();
+                    }
+                });
+    }
+
+    /**
+     * 重连成功：仍在对局中则通知界面重发当前按键状态
+     */
+    private void onReconnected() {
+        Platform.runLater(() -> {
+            MessageUtil.showSuccess("重连成功");
+            Runnable listener = matchResumedListener;
+            if (activeRoomId != null && listener != null) {
+                listener.run();
+            }
+        });
+    }
+
+    /**
+     * 设置对局恢复监听（传 null 取消）
+     */
+    public void setMatchResumedListener(Runnable listener) {
+        matchResumedListener = listener;
+    }
+
+    private static void checkOk(ResponseBo responseBo) {
+        int code = responseBo.getResponse().getCode();
+        if (code != ErrorCode.OK.getCode()) {
+            throw new BusinessException(code, responseBo.getResponse().getMessage());
+        }
+    }
+
+    /**
+     * 重连失败：回到登录界面
+     */
+    private void onReconnectGiveUp(Throwable cause) {
+        Log.warn(LogCategory.NET, "放弃重连: {}", String.valueOf(cause));
+        closeSilently();
+        activeRoomId = null;
+        UserInfoManager.getInstance().clearUserinfo();
+        Platform.runLater(() -> {
+            MessageUtil.showError("连接已断开，请重新登录");
+            ViewManager.getInstance().show(ViewEnum.LOGIN);
+        });
     }
 
 
     public void send(GameMsgType type, MessageLite message) {
-        byte[] body = message == null ? new byte[0] : message.toByteArray();
+        // 操作输入（移动、射击、Tick 确认）过时就没有意义：旧连接上的确认对新会话无效，补发的移动、射击会晚好几秒才生效，
+        // 重连期间直接丢弃，恢复对局后由界面重发当前按键状态
+        if (sendLane(type.getCode()) == SendLane.INPUT && reconnectController.isReconnecting()) {
+            return;
+        }
+        // 其余消息重连期间先缓存，重连成功后补发
+        if (reconnectController.buffer(() -> send(type, message))) {
+            return;
+        }
         int requestId = requestIdGenerator.getNextRequestId();
-        System.out.println("发送消息: " + type + " 请求ID: " + requestId);
-        super.send((byte) type.getCode(), (byte) ConfigManager.getInstance().getProtocolVersion(), requestId, body);
+        if (Log.isDebugEnabled(LogCategory.NET)) {
+            Log.sampled(SEND_LOG_LIMIT, LogLevel.DEBUG, LogCategory.NET, "发送消息: {} 请求ID: {}", type, requestId);
+        }
+        super.send((byte) type.getCode(), getOutboundVersion(), requestId, message);
     }
 
     public void listenMessage(GameMsgType msgType, Consumer<MessageLite> callback) {
         msgCallbackEventManager.listenMessage(msgType, callback);
     }
 
+    public void listenMessage(GameMsgType msgType, MessageFilter filter, Consumer<MessageLite> callback) {
+        msgCallbackEventManager.listenMessage(msgType, filter, callback);
+    }
+
     public void removeListener(GameMsgType msgType, Consumer<MessageLite> callback) {
         msgCallbackEventManager.removeListener(msgType, callback);
     }
 
+    public void listenTick(long roomId, Consumer<CoalescedTick> callback) {
+        msgCallbackEventManager.listenTick(roomId, callback);
+    }
+
+    public void removeTickListener(Consumer<CoalescedTick> callback) {
+        msgCallbackEventManager.removeTickListener(callback);
+    }
+
+    public void clearTicks(long roomId) {
+        msgCallbackEventManager.clearTicks(roomId);
+    }
+
     public CompletableFuture<ResponseBo> sendAndListenFuture(GameMsgType type, MessageLite message) {
         return sendAndListenFuture(type, message, 5000);
     }
 
     public CompletableFuture<ResponseBo> sendAndListenFuture(GameMsgType type, MessageLite message, long timeoutMs) {
+        if (CACHEABLE_TYPES.contains(type)) {
+            // 幂等查询：并发调用共享同一个请求，TTL 内直接复用响应；回调统一切回 UI 线程
+            return requestCache.get(type.getCode(), message.toByteString(),
+                            () -> sendRequest(type, message, timeoutMs))
+                    .thenApplyAsync(Function.identity(), Platform::runLater);
+        }
+        return sendRequest(type, message, timeoutMs);
+    }
+
+    private CompletableFuture<ResponseBo> sendRequest(GameMsgType type, MessageLite message, long timeoutMs) {
         int requestId = requestIdGenerator.getNextRequestId();
-        CompletableFuture<ResponseBo> f = new CompletableFuture<>();
+        // 先登记再发送，避免响应比登记先到；超时由请求表的时间轮统一处理，future 在 UI 线程中完成
+        CompletableFuture<ResponseBo> f = requestCallbackEventManager.register(requestId, type, timeoutMs);
+        super.send(type.getCode(), getOutboundVersion(), requestId, message);
+        return f;
+    }
 
-        requestCallbackEventManager.listenRequest(requestId, responseBo -> {
-            // 这里在 messageExecutor 线程里触发（因为 onMessage 在 messageExecutor）
-            // 确保只完成一次，避免重复完成
-            if (!f.isDone()) {
-                f.complete(responseBo);
-            }
-        });
+    /**
+     * 操作输入走最高优先级通道，大厅分页轮询走批量通道，其余为控制通道
+     */
+    @Override
+    protected SendLane sendLane(int type) {
+        return switch (GameMsgType.of(type)) {
+            case TANK_MOVE, TANK_SHOOT, TICK_ACK -> SendLane.INPUT;
+            case PAGE_ROOM -> SendLane.BULK;
+            default -> SendLane.CONTROL;
+        };
+    }
 
-        super.send((byte) type.getCode(), (byte) ConfigManager.getInstance().getProtocolVersion(), requestId, message.toByteArray());
+    /**
+     * 连续排队的移动只需要发最新的方向
+     */
+    @Override
+    protected boolean coalescable(int type) {
+        return type == GameMsgType.TANK_MOVE.getCode() || type == GameMsgType.TICK_ACK.getCode();
+    }
 
-        // 确保超时或完成时都移除监听器，避免内存泄漏
-        return f.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
-                .whenComplete((r, e) -> {
-                    // 无论成功、失败还是超时，都移除监听器
-                    requestCallbackEventManager.removeListener(requestId);
-                    if (e instanceof java.util.concurrent.TimeoutException) {
-                        System.out.println("请求超时: requestId=" + requestId + ", type=" + type);
-                    }
-                });
+    /**
+     * 被丢弃的请求立即失败，调用方不用等到超时
+     */
+    @Override
+    protected void onSendDropped(OutboundMessage msg) {
+        super.onSendDropped(msg);
+        if (msg.getRequestId() > 0) {
+            requestCallbackEventManager.fail(msg.getRequestId(), ErrorCode.RATE_LIMITED, "发送队列已满，请求未发出");
+        }
+    }
+
+    /**
+     * 增量 Tick 依赖前面 Tick 还原出的基线，必须和完整 Tick 在同一条带上按到达顺序处理
+     */
+    @Override
+    protected int dispatchKey(InboundMessage msg) {
+        if (msg.getType() == GameMsgType.GAME_TICK_DELTA.getCode()) {
+            return GameMsgType.GAME_TICK.getCode();
+        }
+        return msg.getType();
     }
 
     @Override
@@ -102,17 +412,69 @@ public final class GameConnectionManager extends TcpClientManager {
         GameMsgType msgType = GameMsgType.of(msg.getType());
         int requestId = msg.getRequestId();
 
-        System.out.println("收到服务器消息: " + msgType + " 请求ID: " + requestId + " 原始MsgType: " + msg.getType());
+        // 心跳回包只用于统计 RTT，不再分发
+        if (msgType == GameMsgType.PONG) {
+            heartbeatMonitor.onPong(requestId);
+            return;
+        }
+
+        if (Log.isDebugEnabled(LogCategory.DISPATCH)) {
+            Log.sampled(RECEIVE_LOG_LIMIT, LogLevel.DEBUG, LogCategory.DISPATCH, "收到服务器消息: {} 请求ID: {}", msgType, requestId);
+        }
 
         // 优化消息路由：优先处理请求-响应模式（requestId > 0）
         // 如果存在对应的请求监听器，说明这是请求-响应消息，优先处理
         // 否则作为广播消息处理
-        if (requestId > 0 && requestCallbackEventManager.hasListener(requestId)) {
+        if (requestId > 0 && requestCallbackEventManager.triggerCallback(requestId, msg, msgType)) {
             // 请求-响应模式：只触发请求回调
-            requestCallbackEventManager.triggerCallback(requestId, msg, msgType);
-        } else {
-            // 广播消息：触发类型回调
-            msgCallbackEventManager.triggerCallback(msgType, msg);
+            return;
+        }
+        if (tickDecoder != null && (msgType == GameMsgType.GAME_TICK || msgType == GameMsgType.GAME_TICK_DELTA)) {
+            onTick(msgType, msg);
+            return;
+        }
+        // 广播消息：触发类型回调
+        if (CACHE_INVALIDATING_TYPES.contains(msgType)) {
+            requestCache.invalidateAll();
+        }
+        msgCallbackEventManager.triggerCallback(msgType, msg);
+    }
+
+    /**
+     * 当前对局的 Tick：完整 Tick 记为基线，增量 Tick 还原为完整 Tick，然后确认给服务端
+     * 还原失败时丢弃该增量并请求重同步，下一次收到完整 Tick 后恢复
+     */
+    private void onTick(GameMsgType msgType, InboundMessage msg) {
+        Long roomId = activeRoomId;
+        LazyMessage lazy = new LazyMessage(msg, msgType.getParser());
+        // Tick 和 TickDelta 的 roomId 都是 1 号字段，不是当前对局的直接按原路径分发
+        if (roomId == null || lazy.peekPayloadVarint(MatchProto.Tick.ROOMID_FIELD_NUMBER, 0) != roomId) {
+            if (msgType == GameMsgType.GAME_TICK) {
+                msgCallbackEventManager.triggerCallback(msgType, msg);
+            }
+            return;
+        }
+        MessageLite parsed = lazy.get();
+        MatchProto.Tick tick = null;
+        if (parsed instanceof MatchProto.Tick full) {
+            tick = tickDecoder.onFull(full);
+        } else if (parsed instanceof MatchProto.TickDelta delta) {
+            tick = tickDecoder.onDelta(delta);
         }
+        if (tick == null) {
+            Log.info(LogCategory.NET, "增量 Tick 基线缺失，请求完整 Tick: roomId={}", roomId);
+            sendTickAck(roomId, tickDecoder.latestTimeStamp(), true);
+            return;
+        }
+        sendTickAck(roomId, tick.getTickTimeStamp(), false);
+        msgCallbackEventManager.triggerTick(tick);
+    }
+
+    private void sendTickAck(long roomId, long tickTimeStamp, boolean resync) {
+        send(GameMsgType.TICK_ACK, MatchProto.TickAck.newBuilder()
+                .setRoomId(roomId)
+                .setTickTimeStamp(tickTimeStamp)
+                .setResync(resync)
+                .build());
     }
 }
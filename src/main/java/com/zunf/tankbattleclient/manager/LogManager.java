@@ -0,0 +1,179 @@
+package com.zunf.tankbattleclient.manager;
+
+import com.zunf.tankbattleclient.handler.LogRingBuffer;
+import com.zunf.tankbattleclient.handler.RollingFileWriter;
+import com.zunf.tankbattleclient.model.bo.LogEvent;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 日志输出管理器 单例
+ * 调用方只把日志事件放进无锁环形缓冲区，由 log-writer 后台线程统一格式化并写到控制台或滚动文件，
+ * 网络线程和 UI 线程不再直接做字符串拼接和 IO
+ */
+public final class LogManager {
+
+    private static volatile LogManager INSTANCE;
+
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    /**
+     * 缓冲区为空时写线程的休眠时长
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final LogRingBuffer buffer;
+    private final PrintStream console = System.out;
+    private final StringBuilder line = new StringBuilder(256);
+    private final Thread writerThread;
+
+    /**
+     * 为 null 时输出到控制台
+     */
+    private RollingFileWriter file;
+
+    private LogManager() {
+        ConfigManager config = ConfigManager.getInstance();
+        this.buffer = new LogRingBuffer(config.getLogBufferSize());
+        if ("file".equalsIgnoreCase(config.getLogOutput())) {
+            try {
+                file = new RollingFileWriter(Path.of(config.getLogFilePath()),
+                        config.getLogFileMaxBytes(), config.getLogFileMaxFiles());
+            } catch (IOException e) {
+                System.err.println("打开日志文件失败，改为输出到控制台: " + e.getMessage());
+            }
+        }
+        writerThread = new Thread(this::runWriter, "log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        // 退出前把缓冲区里剩余的日志写完
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushOnExit, "log-flush"));
+    }
+
+    public static LogManager getInstance() {
+        if (INSTANCE == null) {
+            synchronized (LogManager.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new LogManager();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * 提交一条日志，缓冲区满时丢弃（由写线程汇总报告丢弃条数）
+     */
+    public void append(LogEvent event) {
+        buffer.offer(event);
+    }
+
+    private void runWriter() {
+        while (true) {
+            try {
+                if (drain() == 0) {
+                    flushSink();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (Throwable t) {
+                System.err.println("日志线程异常: " + t);
+            }
+        }
+    }
+
+    private synchronized void flushOnExit() {
+        drain();
+        flushSink();
+    }
+
+    /**
+     * 写出缓冲区中已有的日志，返回条数
+     */
+    private synchronized int drain() {
+        int count = 0;
+        LogEvent event;
+        while ((event = buffer.poll()) != null) {
+            write(format(event));
+            count++;
+        }
+        long dropped = buffer.takeDropped();
+        if (dropped > 0) {
+            write(TIME_FORMAT.format(Instant.now()) + " WARN  [APP] [log-writer] 日志缓冲区已满，丢弃 " + dropped + " 条日志");
+        }
+        return count;
+    }
+
+    private String format(LogEvent event) {
+        line.setLength(0);
+        line.append(TIME_FORMAT.format(Instant.ofEpochMilli(event.timeMillis()))).append(' ');
+        String level = event.level().name();
+        line.append(level);
+        for (int i = level.length(); i < 6; i++) {
+            line.append(' ');
+        }
+        line.append('[').append(event.category().name()).append("] [").append(event.thread()).append("] ");
+        appendMessage(line, event.template(), event.args());
+        if (event.error() != null) {
+            StringWriter sw = new StringWriter();
+            event.error().printStackTrace(new PrintWriter(sw));
+            line.append(System.lineSeparator()).append(sw.toString().stripTrailing());
+        }
+        return line.toString();
+    }
+
+    /**
+     * 按顺序把 {} 替换为参数，多余的占位符原样保留
+     */
+    private static void appendMessage(StringBuilder sb, String template, Object[] args) {
+        if (args == null || args.length == 0) {
+            sb.append(template);
+            return;
+        }
+        int from = 0;
+        int argIndex = 0;
+        while (argIndex < args.length) {
+            int at = template.indexOf("{}", from);
+            if (at < 0) {
+                break;
+            }
+            sb.append(template, from, at).append(args[argIndex++]);
+            from = at + 2;
+        }
+        sb.append(template, from, template.length());
+    }
+
+    private void write(String text) {
+        if (file != null) {
+            try {
+                file.write(text);
+                return;
+            } catch (IOException e) {
+                file = null;
+                System.err.println("写日志文件失败，改为输出到控制台: " + e.getMessage());
+            }
+        }
+        console.println(text);
+    }
+
+    private void flushSink() {
+        if (file != null) {
+            try {
+                file.flush();
+            } catch (IOException e) {
+                System.err.println("刷新日志文件失败: " + e.getMessage());
+            }
+        } else {
+            console.flush();
+        }
+    }
+}
@@ -1,18 +1,22 @@
 package com.zunf.tankbattleclient.manager;
 
-import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.MessageLite;
-import com.zunf.tankbattleclient.protobuf.CommonProto;
+import com.google.protobuf.Parser;
 import com.zunf.tankbattleclient.enums.GameMsgType;
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.handler.MessageFilter;
+import com.zunf.tankbattleclient.handler.TickCoalescer;
+import com.zunf.tankbattleclient.model.bo.CoalescedTick;
 import com.zunf.tankbattleclient.model.message.InboundMessage;
-import com.zunf.tankbattleclient.util.ProtoBufUtil;
+import com.zunf.tankbattleclient.model.message.LazyMessage;
+import com.zunf.tankbattleclient.protobuf.game.match.MatchProto;
+import com.zunf.tankbattleclient.util.Log;
 import javafx.application.Platform;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 /**
@@ -36,79 +40,238 @@ public class MsgCallbackEventManager {
         return INSTANCE;
     }
 
-    // 回调映射表：消息类型 -> 多个回调函数，收到对应消息时执行对应回调
-    private final Map<GameMsgType, CopyOnWriteArrayList<Consumer<MessageLite>>> responseCallbacks = new ConcurrentHashMap<>();
-    // 使用 Set 快速检查回调是否已存在，避免 O(n) 的 contains 操作
-    private final Map<GameMsgType, Set<Consumer<MessageLite>>> callbackSets = new ConcurrentHashMap<>();
+    private final TickCoalescer tickCoalescer = new TickCoalescer();
+
+    // 监听器注册表（只在注册/移除时修改，由 this 加锁保护）
+    private final Map<GameMsgType, List<Listener>> listeners = new EnumMap<>(GameMsgType.class);
+    // GAME_TICK 的合并回调：UI 线程落后时，只收到每个房间最新的 Tick 以及被跳过 Tick 中的事件
+    private final List<TickListener> tickListeners = new ArrayList<>();
+
+    /**
+     * 分发表：按 GameMsgType.ordinal() 直接索引，每项打包好解析器、监听器快照和分发标志
+     * 收消息时只读 volatile 数组；监听器变化时整表重建（写时复制），分发路径无锁、无 Map 查找
+     */
+    private volatile Route[] routes = buildRoutes();
+
+    /**
+     * 一种消息类型的分发信息，不可变
+     */
+    private record Route(GameMsgType type,
+                         Parser<? extends MessageLite> parser,
+                         List<Listener> listeners,
+                         List<TickListener> tickListeners,
+                         boolean coalesce,
+                         boolean dropIfNoListener,
+                         boolean filtered) {
+    }
+
+    /**
+     * 普通监听器：解析前过滤器 + 回调
+     */
+    private record Listener(MessageFilter filter, Consumer<MessageLite> callback) {
+    }
+
+    /**
+     * 合并 Tick 监听器：只接收指定房间的 Tick
+     */
+    private record TickListener(long roomId, Consumer<CoalescedTick> callback) {
+    }
 
     /**
      * 监听消息
      */
     public void listenMessage(GameMsgType msgType, Consumer<MessageLite> callback) {
-        // 使用 Set 快速检查重复（O(1)），而不是 List.contains()（O(n)）
-        Set<Consumer<MessageLite>> set = callbackSets.computeIfAbsent(msgType, k -> ConcurrentHashMap.newKeySet());
-        if (set.add(callback)) {
-            // 只有当 callback 是新添加的时候，才添加到 List 中
-            CopyOnWriteArrayList<Consumer<MessageLite>> list = responseCallbacks.computeIfAbsent(msgType,
-                    k -> new CopyOnWriteArrayList<>());
-            list.add(callback);
+        listenMessage(msgType, MessageFilter.ACCEPT_ALL, callback);
+    }
+
+    /**
+     * 监听消息，filter 在解析 payload 之前执行，不接受的消息不会被解析
+     */
+    public synchronized void listenMessage(GameMsgType msgType, MessageFilter filter, Consumer<MessageLite> callback) {
+        List<Listener> list = listeners.computeIfAbsent(msgType, k -> new ArrayList<>());
+        if (list.stream().noneMatch(l -> l.callback() == callback)) {
+            list.add(new Listener(filter, callback));
+            routes = buildRoutes();
         }
     }
 
     /**
      * 移除监听
      */
-    public void removeListener(GameMsgType msgType, Consumer<MessageLite> callback) {
-        CopyOnWriteArrayList<Consumer<MessageLite>> callbacks = responseCallbacks.get(msgType);
-        if (callbacks != null) {
-            callbacks.remove(callback);
+    public synchronized void removeListener(GameMsgType msgType, Consumer<MessageLite> callback) {
+        List<Listener> list = listeners.get(msgType);
+        if (list != null && list.removeIf(l -> l.callback() == callback)) {
+            routes = buildRoutes();
         }
-        Set<Consumer<MessageLite>> set = callbackSets.get(msgType);
-        if (set != null) {
-            set.remove(callback);
+    }
+
+    /**
+     * 监听某个房间合并后的 Tick，其他房间的 Tick 在解析前就被丢弃
+     */
+    public synchronized void listenTick(long roomId, Consumer<CoalescedTick> callback) {
+        if (tickListeners.stream().noneMatch(l -> l.callback() == callback)) {
+            tickListeners.add(new TickListener(roomId, callback));
+            routes = buildRoutes();
         }
     }
 
+    /**
+     * 移除合并 Tick 监听
+     */
+    public synchronized void removeTickListener(Consumer<CoalescedTick> callback) {
+        if (tickListeners.removeIf(l -> l.callback() == callback)) {
+            routes = buildRoutes();
+        }
+    }
+
+    private Route[] buildRoutes() {
+        GameMsgType[] types = GameMsgType.values();
+        Route[] table = new Route[types.length];
+        for (GameMsgType type : types) {
+            List<Listener> typeListeners = List.copyOf(listeners.getOrDefault(type, List.of()));
+            boolean coalesce = type == GameMsgType.GAME_TICK;
+            List<TickListener> typeTickListeners = coalesce ? List.copyOf(tickListeners) : List.of();
+            boolean dropIfNoListener = typeListeners.isEmpty() && typeTickListeners.isEmpty();
+            // 只要有一个监听器带过滤条件（Tick 监听器总是按房间过滤），分发前就要先过滤
+            boolean filtered = !typeTickListeners.isEmpty()
+                    || typeListeners.stream().anyMatch(l -> l.filter() != MessageFilter.ACCEPT_ALL);
+            table[type.ordinal()] = new Route(type, type.getParser(), typeListeners, typeTickListeners,
+                    coalesce, dropIfNoListener, filtered);
+        }
+        return table;
+    }
+
+    /**
+     * 清空某个房间尚未分发的 Tick（离开对局时调用）
+     */
+    public void clearTicks(long roomId) {
+        tickCoalescer.clearRoom(roomId);
+    }
+
     /**
      * 收到消息时触发
      * 优化：批量执行回调，只创建一个 Platform.runLater 任务
      */
     public void triggerCallback(GameMsgType msgType, InboundMessage message) {
-        List<Consumer<MessageLite>> callbacks = responseCallbacks.get(msgType);
-        if (callbacks == null || callbacks.isEmpty()) {
+        Route route = routes[msgType.ordinal()];
+        // 没有监听器的消息连解析都不做
+        if (route.dropIfNoListener()) {
             return;
         }
 
-        CommonProto.BaseResponse baseResponse;
-        try {
-            baseResponse = CommonProto.BaseResponse.parseFrom(message.getBody());
-        } catch (InvalidProtocolBufferException e) {
-            System.err.println("MsgCallbackEventManager 解析消息失败: msgType=" + msgType + ", error=" + e.getMessage());
-            return;
+        // 延迟解析：过滤器只窥探字段，全部不接受时直接丢弃，不创建任何 protobuf 对象
+        LazyMessage lazy = new LazyMessage(message, route.parser());
+        List<Listener> accepted = route.listeners();
+        if (route.filtered()) {
+            accepted = acceptedListeners(route, lazy);
+            if (accepted.isEmpty() && !acceptedByTickListener(route, lazy)) {
+                return;
+            }
         }
 
-        // 在自定义线程池线程中，根据消息类型，解析消息体，避免阻塞 UI 线程
-        MessageLite messageLite = ProtoBufUtil.parseRespBody(baseResponse, msgType.getParser());
+        // 在自定义线程池线程中解析消息体（只解析一次），避免阻塞 UI 线程
+        MessageLite messageLite = lazy.get();
         if (messageLite == null) {
             return;
         }
 
+        // Tick 先进入合并器，UI 线程同一时刻最多只有一个待执行的 Tick 分发任务
+        if (route.coalesce()) {
+            if (tickCoalescer.offer((MatchProto.Tick) messageLite)) {
+                Platform.runLater(this::flushTicks);
+            }
+            return;
+        }
+
         // 优化：只创建一个 Platform.runLater 任务，批量执行所有回调
         // 这样可以减少 JavaFX 应用线程的调度负担，并保证回调按顺序执行
-        final MessageLite finalMessage = messageLite; // 需要 final 或 effectively final
-        final List<Consumer<MessageLite>> callbacksCopy = new CopyOnWriteArrayList<>(callbacks); // 创建快照，避免并发修改
-
+        // route 中的监听器列表是不可变快照，无需再拷贝
+        List<Listener> callbacks = accepted;
         Platform.runLater(() -> {
-            for (Consumer<MessageLite> callback : callbacksCopy) {
+            for (Listener listener : callbacks) {
                 try {
-                    callback.accept(finalMessage);
+                    listener.callback().accept(messageLite);
                 } catch (Exception e) {
                     // 单个回调异常不应影响其他回调的执行
-                    System.err.println(
-                            "MsgCallbackEventManager 回调执行异常: msgType=" + msgType + ", error=" + e.getMessage());
-                    e.printStackTrace();
+                    Log.error(LogCategory.DISPATCH, "MsgCallbackEventManager 回调执行异常: msgType={}", msgType, e);
                 }
             }
         });
     }
+
+    /**
+     * 分发已经解析好的 Tick（如由增量 Tick 还原出的完整 Tick），与 GAME_TICK 走同一个合并器
+     */
+    public void triggerTick(MatchProto.Tick tick) {
+        Route route = routes[GameMsgType.GAME_TICK.ordinal()];
+        if (route.dropIfNoListener()) {
+            return;
+        }
+        if (tickCoalescer.offer(tick)) {
+            Platform.runLater(this::flushTicks);
+        }
+    }
+
+    private static List<Listener> acceptedListeners(Route route, LazyMessage lazy) {
+        List<Listener> accepted = null;
+        for (Listener listener : route.listeners()) {
+            if (listener.filter().test(lazy)) {
+                if (accepted == null) {
+                    accepted = new ArrayList<>(route.listeners().size());
+                }
+                accepted.add(listener);
+            }
+        }
+        return accepted == null ? List.of() : accepted;
+    }
+
+    private static boolean acceptedByTickListener(Route route, LazyMessage lazy) {
+        if (route.tickListeners().isEmpty()) {
+            return false;
+        }
+        long roomId = lazy.peekPayloadVarint(MatchProto.Tick.ROOMID_FIELD_NUMBER, 0);
+        for (TickListener listener : route.tickListeners()) {
+            if (listener.roomId() == roomId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 在 UI 线程中取走合并后的 Tick 并分发给两类监听器
+     * 普通监听器的过滤器同样要执行：合并、还原后的 Tick 包装成 LazyMessage 供过滤器窥探
+     */
+    private void flushTicks() {
+        List<CoalescedTick> batches = tickCoalescer.drain();
+        Route route = routes[GameMsgType.GAME_TICK.ordinal()];
+        for (CoalescedTick batch : batches) {
+            LazyMessage lazy = null;
+            for (Listener listener : route.listeners()) {
+                if (listener.filter() != MessageFilter.ACCEPT_ALL) {
+                    if (lazy == null) {
+                        lazy = new LazyMessage(batch.tick());
+                    }
+                    if (!listener.filter().test(lazy)) {
+                        continue;
+                    }
+                }
+                try {
+                    listener.callback().accept(batch.tick());
+                } catch (Exception e) {
+                    Log.error(LogCategory.DISPATCH, "MsgCallbackEventManager Tick 回调执行异常", e);
+                }
+            }
+            for (TickListener listener : route.tickListeners()) {
+                if (listener.roomId() != batch.tick().getRoomId()) {
+                    continue;
+                }
+                try {
+                    listener.callback().accept(batch);
+                } catch (Exception e) {
+                    Log.error(LogCategory.DISPATCH, "MsgCallbackEventManager Tick 回调执行异常", e);
+                }
+            }
+        }
+    }
 }
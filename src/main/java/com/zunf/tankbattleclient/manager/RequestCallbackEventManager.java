@@ -4,17 +4,24 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.MessageLite;
 import com.google.protobuf.Parser;
 import com.zunf.tankbattleclient.enums.GameMsgType;
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.exception.BusinessException;
+import com.zunf.tankbattleclient.exception.ErrorCode;
+import com.zunf.tankbattleclient.handler.HashedWheelTimer;
+import com.zunf.tankbattleclient.handler.IntHashMap;
 import com.zunf.tankbattleclient.model.bo.ResponseBo;
 import com.zunf.tankbattleclient.protobuf.CommonProto;
 import com.zunf.tankbattleclient.model.message.InboundMessage;
+import com.zunf.tankbattleclient.util.Log;
+import com.zunf.tankbattleclient.util.ProtoBufUtil;
 import javafx.application.Platform;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 请求ID回调事件总线
+ * 等待响应的请求存放在 int 为 key 的开放寻址表中，超时由一个哈希时间轮统一成批处理
  *
  * @author zunf
  * @date 2025/12/14 00:17
@@ -34,73 +41,142 @@ public class RequestCallbackEventManager {
         return INSTANCE;
     }
 
-    private final Map<Integer, Consumer<ResponseBo>> requestCallbacks = new ConcurrentHashMap<>();
+    /**
+     * 时间轮每格时长（毫秒）与格数：精度 50ms，一圈约 25 秒，更长的超时按圈数处理
+     */
+    private static final long TIMEOUT_TICK_MS = 50;
+    private static final int TIMEOUT_WHEEL_SIZE = 512;
+
+    /**
+     * 等待响应的请求：requestId -> PendingRequest，由 pending 自身加锁保护
+     */
+    private final IntHashMap<PendingRequest> pending = new IntHashMap<>(64);
 
     /**
-     * 监听请求响应
+     * 所有请求的超时共用一个时间轮，不再每个请求各自 orTimeout 调度一个任务
      */
-    public void listenRequest(int requestId, Consumer<ResponseBo> callback) {
-        requestCallbacks.put(requestId, callback);
+    private final HashedWheelTimer timeoutWheel = new HashedWheelTimer("request-timeout-wheel",
+            TIMEOUT_TICK_MS, TIMEOUT_WHEEL_SIZE);
+
+    /**
+     * 一个等待响应的请求
+     */
+    private static final class PendingRequest {
+        final int requestId;
+        final GameMsgType type;
+        final CompletableFuture<ResponseBo> future = new CompletableFuture<>();
+        HashedWheelTimer.Timeout timeout;
+
+        PendingRequest(int requestId, GameMsgType type) {
+            this.requestId = requestId;
+            this.type = type;
+        }
     }
 
     /**
-     * 移除监听
+     * 登记一个等待响应的请求，需在发送请求之前调用
+     * 返回的 future 在 UI 线程中完成：收到响应时正常完成，超时以 TimeoutException 异常完成
      */
-    public void removeListener(int requestId) {
-        requestCallbacks.remove(requestId);
+    public CompletableFuture<ResponseBo> register(int requestId, GameMsgType type, long timeoutMs) {
+        PendingRequest request = new PendingRequest(requestId, type);
+        PendingRequest replaced;
+        synchronized (pending) {
+            replaced = pending.put(requestId, request);
+            request.timeout = timeoutWheel.newTimeout(timeoutMs, () -> expire(request));
+        }
+        if (replaced != null) {
+            // 请求ID循环复用时旧请求早该超时了，正常不会发生
+            replaced.timeout.cancel();
+            Platform.runLater(() -> replaced.future.completeExceptionally(
+                    new TimeoutException("requestId 被复用: " + requestId)));
+        }
+        return request.future;
     }
 
     /**
-     * 检查是否存在指定 requestId 的监听器
+     * 超时：仍在等待时移除并以异常完成
      */
-    public boolean hasListener(int requestId) {
-        return requestCallbacks.containsKey(requestId);
+    private void expire(PendingRequest request) {
+        synchronized (pending) {
+            if (pending.get(request.requestId) != request) {
+                return;
+            }
+            pending.remove(request.requestId);
+        }
+        Log.warn(LogCategory.DISPATCH, "请求超时: requestId={}, type={}", request.requestId, request.type);
+        Platform.runLater(() -> request.future.completeExceptionally(
+                new TimeoutException("请求超时: requestId=" + request.requestId)));
     }
 
     /**
-     * 收到消息时触发回调
+     * 请求没能发出（如发送通道已满被丢弃）：仍在等待时移除并立即以异常完成，不必等到超时
      */
-    public void triggerCallback(int requestId, InboundMessage message, GameMsgType type) {
-        Consumer<ResponseBo> callback = requestCallbacks.get(requestId);
-        if (callback == null) {
+    public void fail(int requestId, ErrorCode errorCode, String message) {
+        PendingRequest request;
+        synchronized (pending) {
+            request = pending.remove(requestId);
+        }
+        if (request == null) {
             return;
         }
+        request.timeout.cancel();
+        BusinessException ex = new BusinessException(errorCode, message);
+        Platform.runLater(() -> request.future.completeExceptionally(ex));
+    }
 
-        // 确保无论成功还是失败，都会移除监听器，避免内存泄漏
-        try {
-            CommonProto.BaseResponse baseResponse;
-            try {
-                baseResponse = CommonProto.BaseResponse.parseFrom(message.getBody());
-            } catch (InvalidProtocolBufferException e) {
-                System.err.println(
-                        "RequestCallbackEventManager 解析消息失败: requestId=" + requestId + ", error=" + e.getMessage());
-                removeListener(requestId);
-                return;
-            }
-            ResponseBo responseBo = new ResponseBo(baseResponse);
-            Parser<? extends MessageLite> parser = type.getParser();
-            if (parser != null) {
-                try {
-                    MessageLite messageLite = parser.parseFrom(baseResponse.getPayloadBytes());
-                    responseBo.setPayload(messageLite);
-                } catch (Exception e) {
-                    System.out.println("RequestCallbackEventManager 解析消息体失败 " + e.getMessage());
-                    removeListener(requestId);
-                    return;
-                }
-            }
+    /**
+     * 当前等待响应的请求数
+     */
+    public int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
 
-            // 执行回调，添加异常处理 用UI线程回调
+    /**
+     * 收到消息时触发回调
+     *
+     * @return false 表示该 requestId 没有等待中的请求（应作为广播消息处理）
+     */
+    public boolean triggerCallback(int requestId, InboundMessage message, GameMsgType type) {
+        PendingRequest request;
+        synchronized (pending) {
+            request = pending.remove(requestId);
+        }
+        if (request == null) {
+            return false;
+        }
+        request.timeout.cancel();
+
+        CommonProto.BaseResponse baseResponse;
+        try {
+            // 直接从接收缓冲区解析，payload 与接收缓冲区共享内存
+            baseResponse = ProtoBufUtil.parseAliased(message.getBodyBytes(), CommonProto.BaseResponse.parser());
+        } catch (InvalidProtocolBufferException e) {
+            Log.error(LogCategory.DISPATCH, "RequestCallbackEventManager 解析消息失败: requestId={}", requestId, e);
+            failOnUiThread(request, e);
+            return true;
+        }
+        ResponseBo responseBo = new ResponseBo(baseResponse);
+        Parser<? extends MessageLite> parser = type.getParser();
+        if (parser != null) {
             try {
-                Platform.runLater(() -> callback.accept(responseBo));
+                MessageLite messageLite = ProtoBufUtil.parseAliased(baseResponse.getPayloadBytes(), parser);
+                responseBo.setPayload(messageLite);
             } catch (Exception e) {
-                System.err.println(
-                        "RequestCallbackEventManager 回调执行异常: requestId=" + requestId + ", error=" + e.getMessage());
-                e.printStackTrace();
+                Log.error(LogCategory.DISPATCH, "RequestCallbackEventManager 解析消息体失败", e);
+                failOnUiThread(request, e);
+                return true;
             }
-        } finally {
-            // 确保监听器被移除，即使回调执行异常
-            removeListener(requestId);
         }
+
+        // 用UI线程完成
+        Platform.runLater(() -> request.future.complete(responseBo));
+        return true;
+    }
+
+    private static void failOnUiThread(PendingRequest request, Exception e) {
+        BusinessException ex = new BusinessException(ErrorCode.PROTO_PARSE_ERROR, e.getMessage());
+        Platform.runLater(() -> request.future.completeExceptionally(ex));
     }
 }
@@ -1,67 +1,168 @@
 package com.zunf.tankbattleclient.manager;
 
+import com.google.protobuf.MessageLite;
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.enums.LogLevel;
+import com.zunf.tankbattleclient.enums.SendLane;
+import com.zunf.tankbattleclient.enums.TransportMode;
+import com.zunf.tankbattleclient.handler.ChecksumNegotiator;
+import com.zunf.tankbattleclient.handler.LogRateLimiter;
+import com.zunf.tankbattleclient.handler.OutboundScheduler;
+import com.zunf.tankbattleclient.handler.SequencedExecutor;
+import com.zunf.tankbattleclient.model.bo.LaneStats;
 import com.zunf.tankbattleclient.model.message.InboundMessage;
 import com.zunf.tankbattleclient.model.message.OutboundMessage;
-import com.zunf.tankbattleclient.handler.ProtocolEncoder;
+import com.zunf.tankbattleclient.handler.OutboundBatch;
 import com.zunf.tankbattleclient.handler.ProtocolFrameReader;
+import com.zunf.tankbattleclient.util.Log;
 import javafx.application.Platform;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * TCP连接管理器
+ * 支持两种传输模式（由 ConfigManager 的 tcp_client.transport 决定）：
+ * 1. BLOCKING：阻塞 Socket，tcp-reader / tcp-writer 两个线程
+ * 2. NIO：SocketChannel + Selector，单个 tcp-nio 线程完成读写，读使用复用的直接缓冲区
  *
  * @author zunf
  * @date 2025/12/12 22:08
  */
 public class TcpClientManager {
 
+    /**
+     * NIO 模式下读缓冲区大小（直接内存，连接期间复用）
+     */
+    private static final int NIO_READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 每次从发送队列 drainTo 的最大条数，避免一次性搬空超长队列
+     */
+    private static final int DRAIN_CHUNK_SIZE = 64;
+
+    /**
+     * 高频日志采样：每秒最多输出的条数
+     */
+    private static final LogRateLimiter BATCH_LOG_LIMIT = new LogRateLimiter(20);
+    private static final LogRateLimiter SEND_DROP_LOG_LIMIT = new LogRateLimiter(5);
+
     private final String host;
     private final int port;
+    private final TransportMode transportMode;
+    private final int maxBatchBytes;
+    private final long maxLingerNanos;
+    private final ChecksumNegotiator checksumNegotiator;
 
-    private final BlockingQueue<OutboundMessage> sendQueue = new LinkedBlockingQueue<>();
+    // 分优先级的发送队列：操作输入 > 控制请求 > 批量请求
+    private final OutboundScheduler sendScheduler;
     private final AtomicBoolean running = new AtomicBoolean(false);
 
+    /**
+     * 连接代数，每次 connect 加一；旧连接的线程退出时只清理属于自己的那一代，不会误关重连后的新连接
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    // 阻塞模式
     private Socket socket;
     private Thread readerThread;
     private Thread writerThread;
 
+    // NIO 模式
+    // 重连时会被替换为新连接的对象，NIO 线程启动时取局部副本，只操作自己那一代的连接
+    private volatile SocketChannel channel;
+    private volatile Selector selector;
+    private Thread ioThread;
+    // 是否已经唤醒过 selector，避免每条消息都触发一次唤醒系统调用
+    private final AtomicBoolean wakeupPending = new AtomicBoolean(false);
+
     int cores = Runtime.getRuntime().availableProcessors();
     int poolSize = Math.max(2, cores);
     ThreadFactory tf = r -> {
         Thread t = new Thread(r);
         t.setName("tcp-msg-dispatch-" + t.getId());
         t.setDaemon(false); // 通常建议非daemon，配合优雅停机
-        t.setUncaughtExceptionHandler((th, ex) -> System.err.println("Uncaught in " + th.getName() + ": " + ex));
+        t.setUncaughtExceptionHandler((th, ex) -> Log.error(LogCategory.NET, "Uncaught in {}", th.getName(), ex));
         return t;
     };
     ThreadPoolExecutor messageExecutor = new ThreadPoolExecutor(
             poolSize,
             poolSize,
             0L, TimeUnit.MILLISECONDS,
-            new ArrayBlockingQueue<>(10_000),
-            tf,
-            // 让提交线程自己跑，天然背压（常用）
-            new ThreadPoolExecutor.CallerRunsPolicy()
+            // 每个条带同时最多只有一个任务在线程池中，队列长度不会超过条带数
+            new LinkedBlockingQueue<>(),
+            tf
     );
+    // 按消息类型分条带保序分发：同类型消息（如连续的 GAME_TICK）严格按到达顺序处理，不同类型并行
+    // 排队总数超过 10000 时读线程阻塞，天然背压
+    SequencedExecutor dispatchExecutor = new SequencedExecutor(messageExecutor, poolSize * 2, 10_000);
 
     public TcpClientManager(String host, int port) {
         this.host = host;
         this.port = port;
+        this.transportMode = ConfigManager.getInstance().getTransportMode();
+        this.maxBatchBytes = Math.max(1, ConfigManager.getInstance().getWriteMaxBatchBytes());
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ConfigManager.getInstance().getWriteMaxLingerMs()));
+        this.checksumNegotiator = new ChecksumNegotiator(ConfigManager.getInstance().getProtocolVersion());
+        this.sendScheduler = new OutboundScheduler(
+                ConfigManager.getInstance().getSendLaneCapacity(SendLane.INPUT, 64),
+                ConfigManager.getInstance().getSendLaneCapacity(SendLane.CONTROL, 1024),
+                ConfigManager.getInstance().getSendLaneCapacity(SendLane.BULK, 16),
+                this::onSendDropped);
+    }
+
+    /**
+     * 各发送通道的排队深度与排队时间统计
+     */
+    public List<LaneStats> getSendLaneStats() {
+        return sendScheduler.stats();
+    }
+
+    /**
+     * 当前协商出的发送协议版本
+     */
+    public byte getOutboundVersion() {
+        return checksumNegotiator.outboundVersion();
     }
 
     public boolean isConnected() {
+        if (transportMode == TransportMode.NIO) {
+            return channel != null && channel.isConnected() && running.get();
+        }
         return socket != null && socket.isConnected() && running.get();
     }
 
     public void connect() {
+        checksumNegotiator.reset();
+        // 上一个连接没发出去的消息已经过时，不带到新连接上
+        sendScheduler.clear();
+        generation.incrementAndGet();
+        if (transportMode == TransportMode.NIO) {
+            connectNio();
+        } else {
+            connectBlocking();
+        }
+    }
+
+    private void connectBlocking() {
         InputStream in;
         OutputStream out;
         try {
@@ -71,7 +172,8 @@ public class TcpClientManager {
             running.set(true);
 
             in = new BufferedInputStream(socket.getInputStream());
-            out = new BufferedOutputStream(socket.getOutputStream());
+            // 写线程自己攒批，每批一次 write，不再需要 BufferedOutputStream
+            out = socket.getOutputStream();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -80,18 +182,78 @@ public class TcpClientManager {
         startReader(in);
     }
 
-    public void send(int type, byte version, int requestId, byte[] body) {
+    private void connectNio() {
+        try {
+            selector = Selector.open();
+            channel = SocketChannel.open();
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            // 建连仍然阻塞完成，建连后再切换为非阻塞
+            channel.connect(new InetSocketAddress(host, port));
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ);
+
+            running.set(true);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        startNioLoop();
+    }
+
+    public void send(int type, byte version, int requestId, MessageLite body) {
         if (!running.get()) {
             return;
         }
-        boolean offer = sendQueue.offer(new OutboundMessage(type, version, requestId, body));
-        if (!offer) {
-            System.out.println("消息队列已满，丢弃消息");
+        SendLane lane = sendLane(type);
+        OutboundMessage msg = new OutboundMessage(type, version, requestId, body);
+        if (!sendScheduler.offer(msg, lane, coalescable(type))) {
+            onSendDropped(msg);
+            return;
+        }
+        if (transportMode == TransportMode.NIO && wakeupPending.compareAndSet(false, true)) {
+            Selector s = selector;
+            if (s != null) {
+                s.wakeup();
+            }
         }
     }
 
+    /**
+     * 主动关闭连接，不会触发 onDisconnected
+     */
     public void close() {
         running.set(false);
+        closeTransport();
+    }
+
+    /**
+     * 因故障中断连接（如心跳超时），与读写失败一样只触发一次 onDisconnected
+     */
+    protected void abort(Exception e) {
+        fireDisconnected(generation.get(), e);
+        closeTransport();
+    }
+
+    /**
+     * 连接故障时通知上层，同一个连接只通知一次（读、写线程可能同时失败），主动 close 或已重连之后不再通知
+     */
+    private void fireDisconnected(int gen, Exception e) {
+        if (gen == generation.get() && running.compareAndSet(true, false)) {
+            Platform.runLater(() -> onDisconnected(e));
+        }
+    }
+
+    /**
+     * 读写线程退出时清理，只清理仍是当前代的连接
+     */
+    private void closeIfCurrent(int gen) {
+        if (gen == generation.get()) {
+            running.set(false);
+            closeTransport();
+        }
+    }
+
+    private void closeTransport() {
         if (readerThread != null) {
             readerThread.interrupt();
         }
@@ -103,28 +265,45 @@ public class TcpClientManager {
                 socket.close();
             }
         } catch (IOException ignored) {}
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ignored) {}
+        try {
+            if (selector != null) {
+                selector.wakeup();
+                selector.close();
+            }
+        } catch (IOException ignored) {}
     }
 
     private void startWriter(OutputStream out) {
+        int gen = generation.get();
         writerThread = new Thread(() -> {
+            OutboundBatch batch = new OutboundBatch(maxBatchBytes);
+            List<OutboundMessage> drained = new ArrayList<>(DRAIN_CHUNK_SIZE);
             try {
-                System.out.println("启动写入线程");
-                while (running.get()) {
-                    OutboundMessage m = sendQueue.take(); // 阻塞
-                    System.out.println("发送消息");
-                    byte[] packet = ProtocolEncoder.encode(m.getType(), m.getVersion(), m.getRequestId(), m.getBody());
-                    out.write(packet);
+                Log.debug(LogCategory.NET, "启动写入线程");
+                while (running.get() && gen == generation.get()) {
+                    batch.append(sendScheduler.take()); // 阻塞等待第一条
+                    fillBatch(batch, drained);
+                    if (Log.isDebugEnabled(LogCategory.NET)) {
+                        Log.sampled(BATCH_LOG_LIMIT, LogLevel.DEBUG, LogCategory.NET, "发送消息批次: {} 条, {} 字节", batch.count(), batch.size());
+                    }
+                    // 整批一次写入，一次 flush
+                    out.write(batch.array(), 0, batch.size());
                     out.flush();
+                    batch.clear();
                 }
             } catch (InterruptedException e) {
                 // 退出
-                System.out.println("写入线程退出");
+                Log.debug(LogCategory.NET, "写入线程退出");
             } catch (IOException e) {
-                running.set(false);
                 // 这里可以通知 UI：断线
-                Platform.runLater(() -> onDisconnected(e));
+                fireDisconnected(gen, e);
             } finally {
-                close();
+                closeIfCurrent(gen);
             }
         }, "tcp-writer");
         writerThread.setDaemon(true);
@@ -132,36 +311,227 @@ public class TcpClientManager {
     }
 
     private void startReader(InputStream in) {
+        int gen = generation.get();
         readerThread = new Thread(() -> {
-            ProtocolFrameReader fr = new ProtocolFrameReader();
+            ProtocolFrameReader fr = newFrameReader();
             try {
-                System.out.println("启动读取线程");
-                while (running.get()) {
+                Log.debug(LogCategory.NET, "启动读取线程");
+                while (running.get() && gen == generation.get()) {
                     fr.readFrom(in); // 阻塞读
-                    System.out.println("收到服务器消息");
-                    for (;;) {
-                        InboundMessage msg = fr.tryDecodeOne();
-                        if (msg == null) {
-                            System.out.println("没有完整的消息");
-                            break;
-                        }
-
-                        // 避免占用 UI 线程，放到线程池中执行
-                        messageExecutor.execute(() -> onMessage(msg));
-                    }
+                    Log.trace(LogCategory.NET, "收到服务器消息");
+                    dispatchFrames(fr);
                 }
             } catch (IOException e) {
-                e.printStackTrace();
-                running.set(false);
-                Platform.runLater(() -> onDisconnected(e));
+                if (running.get()) {
+                    Log.warn(LogCategory.NET, "连接读写异常", e);
+                }
+                fireDisconnected(gen, e);
             } finally {
-                close();
+                closeIfCurrent(gen);
             }
         }, "tcp-reader");
         readerThread.setDaemon(true);
         readerThread.start();
     }
 
+    /**
+     * 把发送队列中已有的消息攒进批次，直到队列为空或达到批次字节上限
+     * 配置了 max_linger 时，队列为空后最多再等待该时长以凑成更大的批次
+     */
+    private void fillBatch(OutboundBatch batch, List<OutboundMessage> drained) throws InterruptedException {
+        long deadline = System.nanoTime() + maxLingerNanos;
+        while (batch.size() < maxBatchBytes) {
+            drained.clear();
+            if (sendScheduler.drainTo(drained, DRAIN_CHUNK_SIZE) == 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                OutboundMessage m = sendScheduler.poll(remaining, TimeUnit.NANOSECONDS);
+                if (m == null) {
+                    return;
+                }
+                drained.add(m);
+            }
+            for (OutboundMessage m : drained) {
+                batch.append(m);
+            }
+        }
+    }
+
+    /**
+     * NIO 事件循环：一个线程同时负责读和写
+     */
+    private void startNioLoop() {
+        int gen = generation.get();
+        SocketChannel ch = channel;
+        Selector sel = selector;
+        ioThread = new Thread(() -> {
+            ProtocolFrameReader fr = newFrameReader();
+            ByteBuffer readBuffer = ByteBuffer.allocateDirect(NIO_READ_BUFFER_SIZE);
+            OutboundBatch batch = new OutboundBatch(maxBatchBytes);
+            List<OutboundMessage> drained = new ArrayList<>(DRAIN_CHUNK_SIZE);
+            // 已编码但还没写完的批次（socket 发送缓冲区满时会残留）
+            ByteBuffer inFlight = null;
+            SelectionKey key = ch.keyFor(sel);
+            try {
+                Log.debug(LogCategory.NET, "启动NIO线程");
+                while (running.get() && gen == generation.get()) {
+                    sel.select();
+                    if (!running.get()) {
+                        break;
+                    }
+                    wakeupPending.set(false);
+
+                    Iterator<SelectionKey> it = sel.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey k = it.next();
+                        it.remove();
+                        if (k.isValid() && k.isReadable()) {
+                            readNio(ch, fr, readBuffer);
+                        }
+                    }
+
+                    inFlight = writeNio(ch, key, batch, drained, inFlight);
+                }
+            } catch (IOException e) {
+                if (running.get()) {
+                    Log.warn(LogCategory.NET, "连接读写异常", e);
+                }
+                fireDisconnected(gen, e);
+            } catch (ClosedSelectorException | CancelledKeyException e) {
+                // selector 已被 close 或 abort 关闭，退出循环即可；若仍是当前连接则按故障通知
+                Log.debug(LogCategory.NET, "NIO线程退出: selector 已关闭");
+                fireDisconnected(gen, new IOException("连接已关闭", e));
+            } finally {
+                closeIfCurrent(gen);
+            }
+        }, "tcp-nio");
+        ioThread.setDaemon(true);
+        ioThread.start();
+    }
+
+    /**
+     * 把 socket 中当前可读的数据全部读入直接缓冲区，再交给帧解码器
+     */
+    private void readNio(SocketChannel ch, ProtocolFrameReader fr, ByteBuffer readBuffer) throws IOException {
+        for (;;) {
+            int n = ch.read(readBuffer);
+            if (n < 0) {
+                throw new IOException("EOF");
+            }
+            if (n == 0) {
+                return;
+            }
+            readBuffer.flip();
+            fr.readFrom(readBuffer);
+            readBuffer.clear();
+            dispatchFrames(fr);
+        }
+    }
+
+    /**
+     * 把发送队列中的消息按批编码后直接写入 channel，写不完的留到 OP_WRITE 就绪时继续
+     * NIO 线程不能阻塞，因此这里不做 linger 等待
+     *
+     * @return 仍未写完的批次，全部写完返回 null
+     */
+    private ByteBuffer writeNio(SocketChannel ch, SelectionKey key, OutboundBatch batch,
+                                List<OutboundMessage> drained, ByteBuffer inFlight) throws IOException {
+        for (;;) {
+            if (inFlight == null) {
+                batch.clear();
+                while (batch.size() < maxBatchBytes) {
+                    drained.clear();
+                    if (sendScheduler.drainTo(drained, DRAIN_CHUNK_SIZE) == 0) {
+                        break;
+                    }
+                    for (OutboundMessage m : drained) {
+                        batch.append(m);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                    return null;
+                }
+                if (Log.isDebugEnabled(LogCategory.NET)) {
+                    Log.sampled(BATCH_LOG_LIMIT, LogLevel.DEBUG, LogCategory.NET, "发送消息批次: {} 条, {} 字节", batch.count(), batch.size());
+                }
+                inFlight = ByteBuffer.wrap(batch.array(), 0, batch.size());
+            }
+
+            ch.write(inFlight);
+            if (inFlight.hasRemaining()) {
+                // 发送缓冲区已满，等待可写事件
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return inFlight;
+            }
+            inFlight = null;
+        }
+    }
+
+    /**
+     * 创建帧解码器：配置信任回环且连接的是本机时跳过校验
+     */
+    private ProtocolFrameReader newFrameReader() {
+        boolean trusted = false;
+        if (ConfigManager.getInstance().isChecksumTrustLoopback()) {
+            try {
+                trusted = InetAddress.getByName(host).isLoopbackAddress();
+            } catch (IOException ignored) {}
+        }
+        if (trusted) {
+            Log.info(LogCategory.NET, "本机回环连接，跳过收包校验");
+        }
+        return new ProtocolFrameReader(!trusted);
+    }
+
+    /**
+     * 取出解码器中所有完整帧并分发
+     */
+    private void dispatchFrames(ProtocolFrameReader fr) throws IOException {
+        for (;;) {
+            InboundMessage msg = fr.tryDecodeOne();
+            if (msg == null) {
+                Log.trace(LogCategory.NET, "没有完整的消息");
+                break;
+            }
+            checksumNegotiator.onInboundVersion(msg.getVersion() & 0xFF);
+
+            // 避免占用 UI 线程，放到线程池中执行；同一分发 key 的消息保持顺序
+            dispatchExecutor.execute(dispatchKey(msg), () -> onMessage(msg));
+        }
+    }
+
+    /**
+     * 消息走哪个发送通道，默认都是控制通道
+     */
+    protected SendLane sendLane(int type) {
+        return SendLane.CONTROL;
+    }
+
+    /**
+     * 该类型消息排队时是否只保留最新一条（与队尾同类型消息合并）
+     */
+    protected boolean coalescable(int type) {
+        return false;
+    }
+
+    /**
+     * 消息因发送通道已满被丢弃（新消息被拒绝或排队中的消息被挤掉），子类可让对应请求立即失败
+     */
+    protected void onSendDropped(OutboundMessage msg) {
+        Log.sampled(SEND_DROP_LOG_LIMIT, LogLevel.WARN, LogCategory.NET, "发送通道已满，丢弃消息: type={}, requestId={}",
+                msg.getType(), msg.getRequestId());
+    }
+
+    /**
+     * 消息分发的保序 key，相同 key 的消息按到达顺序处理，默认按消息类型
+     */
+    protected int dispatchKey(InboundMessage msg) {
+        return msg.getType();
+    }
+
     /**
      * ====== 在 UI 层实现这两个回调 ======
      */
@@ -10,6 +10,8 @@ public class UserInfoManager {
     private String username;
     private String nickname;
     private Long playerId;
+    // 登录凭证，断线重连时用于重新登录
+    private volatile String token;
     
     private UserInfoManager() {}
     
@@ -34,6 +36,11 @@ public class UserInfoManager {
         this.username = null;
         this.nickname = null;
         this.playerId = null;
+        this.token = null;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
     }
     
     // Getters
@@ -49,4 +56,8 @@ public class UserInfoManager {
         return playerId;
     }
 
+    public String getToken() {
+        return token;
+    }
+
 }
\ No newline at end of file
@@ -5,9 +5,11 @@ import com.zunf.tankbattleclient.enums.Direction;
 public class AnimationXyState {
 
     double currentX, currentY; // 当前显示位置（用于动画）
+    double previousX, previousY; // 上一个模拟步的显示位置（渲染时按 alpha 插值）
     double targetX, targetY; // 目标位置
     Direction direction;
     boolean isAnimating = false;
+    final SnapshotHistory snapshots = new SnapshotHistory(); // 服务端位置快照（用于插值）
 
 
     public double getCurrentY() {
@@ -26,6 +28,25 @@ public class AnimationXyState {
         this.currentX = currentX;
     }
 
+    /**
+     * 记录当前位置作为上一步位置（每个模拟步开始时、直接跳到新位置后调用）
+     */
+    public void storePrevious() {
+        previousX = currentX;
+        previousY = currentY;
+    }
+
+    /**
+     * 上一步与当前步之间 alpha 处的渲染位置
+     */
+    public double getRenderX(double alpha) {
+        return previousX + (currentX - previousX) * alpha;
+    }
+
+    public double getRenderY(double alpha) {
+        return previousY + (currentY - previousY) * alpha;
+    }
+
     public double getTargetY() {
         return targetY;
     }
@@ -50,6 +71,10 @@ public class AnimationXyState {
         this.direction = direction;
     }
 
+    public SnapshotHistory getSnapshots() {
+        return snapshots;
+    }
+
     public boolean isAnimating() {
         return isAnimating;
     }
@@ -2,4 +2,22 @@ package com.zunf.tankbattleclient.model.bo;
 
 public class BulletState extends AnimationXyState {
 
-}
\ No newline at end of file
+    boolean expired = false; // 本地推算已撞墙，等服务端移除前不再绘制
+    long expiredAt = 0; // 判定撞墙时的渲染时刻（服务端时间）
+
+    public boolean isExpired() {
+        return expired;
+    }
+
+    public void setExpired(boolean expired) {
+        this.expired = expired;
+    }
+
+    public long getExpiredAt() {
+        return expiredAt;
+    }
+
+    public void setExpiredAt(long expiredAt) {
+        this.expiredAt = expiredAt;
+    }
+}
@@ -0,0 +1,15 @@
+package com.zunf.tankbattleclient.model.bo;
+
+import com.zunf.tankbattleclient.protobuf.game.match.MatchProto;
+
+import java.util.Set;
+
+/**
+ * 合并后的 Tick
+ *
+ * @param tick          该房间最新的 Tick（已补上被跳过 Tick 中的地图数据、格子变化和游戏结束信息）
+ * @param hitPlayerIds  合并期间血量下降过的玩家（包括在被跳过的 Tick 中受击的）
+ * @param mergedCount   本次合并的 Tick 数量，1 表示没有发生合并
+ */
+public record CoalescedTick(MatchProto.Tick tick, Set<Long> hitPlayerIds, int mergedCount) {
+}
@@ -0,0 +1,76 @@
+package com.zunf.tankbattleclient.model.bo;
+
+import com.zunf.tankbattleclient.constant.GameConstants;
+import com.zunf.tankbattleclient.enums.MapIndex;
+
+/**
+ * 地图碰撞位图：每个格子一位，不可破坏墙和可破坏墙为阻挡，地图外也视为阻挡
+ * 由 GameMap 随地图载入、格子变化同步维护，本地预测和子弹推算直接按像素坐标查询
+ */
+public class CollisionGrid {
+
+    private long[] bits = new long[0];
+    private int height = 0;
+    private int width = 0;
+
+    void reset(int height, int width) {
+        this.height = height;
+        this.width = width;
+        this.bits = new long[(height * width + 63) >>> 6];
+    }
+
+    void set(int row, int col, byte cellType) {
+        int i = row * width + col;
+        if (isBlocking(cellType)) {
+            bits[i >>> 6] |= 1L << i;
+        } else {
+            bits[i >>> 6] &= ~(1L << i);
+        }
+    }
+
+    public boolean isEmpty() {
+        return height == 0;
+    }
+
+    /**
+     * 格子是否阻挡，越界视为阻挡
+     */
+    public boolean isBlocked(int row, int col) {
+        if (row < 0 || row >= height || col < 0 || col >= width) {
+            return true;
+        }
+        int i = row * width + col;
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * 像素坐标所在格子是否阻挡
+     */
+    public boolean isBlockedAt(double x, double y) {
+        return isBlocked((int) Math.floor(y / GameConstants.CELL_SIZE), (int) Math.floor(x / GameConstants.CELL_SIZE));
+    }
+
+    /**
+     * 以 (centerX, centerY) 为中心、半边长 halfSize 的方形是否与任何阻挡格子重叠（像素坐标）
+     */
+    public boolean overlaps(double centerX, double centerY, double halfSize) {
+        // 边界上的格子不算重叠，往里收一点避免贴墙时误判
+        double eps = 1e-6;
+        int minCol = (int) Math.floor((centerX - halfSize + eps) / GameConstants.CELL_SIZE);
+        int maxCol = (int) Math.floor((centerX + halfSize - eps) / GameConstants.CELL_SIZE);
+        int minRow = (int) Math.floor((centerY - halfSize + eps) / GameConstants.CELL_SIZE);
+        int maxRow = (int) Math.floor((centerY + halfSize - eps) / GameConstants.CELL_SIZE);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                if (isBlocked(row, col)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBlocking(byte cellType) {
+        return cellType == MapIndex.WALL.getCode() || cellType == MapIndex.BRICK.getCode();
+    }
+}
@@ -0,0 +1,116 @@
+package com.zunf.tankbattleclient.model.bo;
+
+import com.google.protobuf.ByteString;
+import com.zunf.tankbattleclient.constant.GameConstants;
+import com.zunf.tankbattleclient.enums.MapIndex;
+import com.zunf.tankbattleclient.protobuf.game.match.MatchProto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 客户端地图模型
+ * 开局和重同步时整张载入，之后按格子变化就地修改，不再每次整张重建；
+ * 砖块被摧毁时直接登记摧毁动画，同时维护碰撞位图
+ */
+public class GameMap {
+
+    private byte[][] cells = new byte[0][0];
+    private int width = 0;
+    private final CollisionGrid collisionGrid = new CollisionGrid();
+
+    public int getHeight() {
+        return cells.length;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public boolean isEmpty() {
+        return cells.length == 0;
+    }
+
+    public byte get(int row, int col) {
+        return cells[row][col];
+    }
+
+    public CollisionGrid getCollisionGrid() {
+        return collisionGrid;
+    }
+
+    public void clear() {
+        cells = new byte[0][0];
+        width = 0;
+        collisionGrid.reset(0, 0);
+    }
+
+    /**
+     * 整张载入（开局、重同步）
+     *
+     * @param destroyedBrickAnimations 不为 null 且已有地图时，与旧地图比较并登记被摧毁的砖块
+     * @param nowMs                    摧毁动画的开始时间（游戏时钟）
+     */
+    public void load(List<ByteString> rows, Map<String, Long> destroyedBrickAnimations, long nowMs) {
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        int height = Math.min(rows.size(), GameConstants.MAP_SIZE);
+        int newWidth = Math.min(rows.get(0).size(), GameConstants.MAP_SIZE);
+        byte[][] loaded = new byte[height][newWidth];
+        for (int row = 0; row < height; row++) {
+            ByteString rowData = rows.get(row);
+            int n = Math.min(rowData.size(), newWidth);
+            rowData.substring(0, n).copyTo(loaded[row], 0);
+        }
+
+        if (destroyedBrickAnimations != null && !isEmpty()) {
+            for (int row = 0; row < Math.min(height, cells.length); row++) {
+                for (int col = 0; col < Math.min(newWidth, width); col++) {
+                    if (isBrickDestroyed(cells[row][col], loaded[row][col])) {
+                        destroyedBrickAnimations.put(row + "_" + col, nowMs);
+                    }
+                }
+            }
+        }
+        cells = loaded;
+        width = newWidth;
+        collisionGrid.reset(height, newWidth);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < newWidth; col++) {
+                collisionGrid.set(row, col, loaded[row][col]);
+            }
+        }
+    }
+
+    /**
+     * 就地应用格子变化，越界的变化忽略
+     *
+     * @param destroyedBrickAnimations 不为 null 时登记被摧毁的砖块
+     * @param nowMs                    摧毁动画的开始时间（游戏时钟）
+     */
+    public void apply(List<MatchProto.MapCellChange> changes, Map<String, Long> destroyedBrickAnimations,
+                      long nowMs) {
+        for (MatchProto.MapCellChange change : changes) {
+            int row = change.getRow();
+            int col = change.getCol();
+            if (row < 0 || row >= cells.length || col < 0 || col >= width) {
+                continue;
+            }
+            byte newType = (byte) change.getNewType();
+            if (destroyedBrickAnimations != null && isBrickDestroyed(cells[row][col], newType)) {
+                destroyedBrickAnimations.put(row + "_" + col, nowMs);
+            }
+            cells[row][col] = newType;
+            collisionGrid.set(row, col, newType);
+        }
+    }
+
+    /**
+     * 之前是可破坏墙(BRICK)，现在是已破坏墙(DESTROYED_WALL)或空地(EMPTY)
+     */
+    private static boolean isBrickDestroyed(byte previousType, byte currentType) {
+        return previousType == MapIndex.BRICK.getCode()
+                && (currentType == MapIndex.DESTROYED_WALL.getCode() || currentType == MapIndex.EMPTY.getCode());
+    }
+}
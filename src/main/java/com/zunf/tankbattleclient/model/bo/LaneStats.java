@@ -0,0 +1,18 @@
+package com.zunf.tankbattleclient.model.bo;
+
+import com.zunf.tankbattleclient.enums.SendLane;
+
+/**
+ * 发送通道统计快照
+ *
+ * @param lane       通道
+ * @param depth      当前排队数
+ * @param sent       已被写线程取走的消息数
+ * @param dropped    因通道满被丢弃（或拒绝）的消息数
+ * @param coalesced  被同类新消息合并掉的消息数
+ * @param avgWaitMs  取走的消息平均排队时间（毫秒）
+ * @param maxWaitMs  取走的消息最长排队时间（毫秒）
+ */
+public record LaneStats(SendLane lane, int depth, long sent, long dropped, long coalesced,
+                        double avgWaitMs, double maxWaitMs) {
+}
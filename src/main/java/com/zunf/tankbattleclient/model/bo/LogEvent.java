@@ -0,0 +1,19 @@
+package com.zunf.tankbattleclient.model.bo;
+
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.enums.LogLevel;
+
+/**
+ * 一条待输出的日志，模板和参数原样保存，由后台线程格式化
+ *
+ * @param timeMillis 产生时间
+ * @param level      级别
+ * @param category   分类
+ * @param thread     产生日志的线程名
+ * @param template   消息模板，{} 为参数占位符
+ * @param args       参数（应为不可变对象）
+ * @param error      异常，没有为 null
+ */
+public record LogEvent(long timeMillis, LogLevel level, LogCategory category, String thread,
+                       String template, Object[] args, Throwable error) {
+}
@@ -0,0 +1,16 @@
+package com.zunf.tankbattleclient.model.bo;
+
+/**
+ * 心跳 RTT 统计快照（单位：毫秒）
+ *
+ * @param samples        窗口内的样本数
+ * @param minRtt         最小 RTT
+ * @param p50Rtt         RTT 中位数
+ * @param p99Rtt         RTT 99 分位
+ * @param p50Jitter      抖动（相邻两次 RTT 之差的绝对值）中位数
+ * @param p99Jitter      抖动 99 分位
+ * @param missedInARow   当前连续未收到 PONG 的次数
+ */
+public record RttStats(int samples, double minRtt, double p50Rtt, double p99Rtt,
+                       double p50Jitter, double p99Jitter, int missedInARow) {
+}
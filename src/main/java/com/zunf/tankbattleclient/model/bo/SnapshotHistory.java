@@ -0,0 +1,134 @@
+package com.zunf.tankbattleclient.model.bo;
+
+import com.zunf.tankbattleclient.constant.GameConstants;
+import com.zunf.tankbattleclient.enums.Direction;
+
+/**
+ * 单个实体按服务端时间（Tick.tickTimeStamp）记录的位置快照，固定容量环形缓冲
+ * 渲染时按渲染时钟找出前后两个快照做线性插值，移动速度与帧率、Tick 到达节奏无关
+ */
+public class SnapshotHistory {
+
+    private static final int CAPACITY = 16;
+
+    private final long[] times = new long[CAPACITY];
+    private final double[] xs = new double[CAPACITY];
+    private final double[] ys = new double[CAPACITY];
+    private final Direction[] directions = new Direction[CAPACITY];
+
+    /**
+     * 最旧快照的下标
+     */
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * 记录一个快照；时间不晚于最新快照的视为重复或乱序，同一时间覆盖，更早的丢弃
+     */
+    public void add(long serverTime, double x, double y, Direction direction) {
+        if (size > 0) {
+            long newest = newestTime();
+            if (serverTime < newest) {
+                return;
+            }
+            if (serverTime == newest) {
+                set(index(size - 1), serverTime, x, y, direction);
+                return;
+            }
+        }
+        if (size == CAPACITY) {
+            head = (head + 1) % CAPACITY;
+            size--;
+        }
+        set(index(size), serverTime, x, y, direction);
+        size++;
+    }
+
+    /**
+     * 清空并只保留一个快照（出生、复活等需要直接跳到新位置的情况）
+     */
+    public void reset(long serverTime, double x, double y, Direction direction) {
+        head = 0;
+        size = 0;
+        add(serverTime, x, y, direction);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long newestTime() {
+        return times[index(size - 1)];
+    }
+
+    public Direction newestDirection() {
+        return directions[index(size - 1)];
+    }
+
+    public double newestX() {
+        return xs[index(size - 1)];
+    }
+
+    public double newestY() {
+        return ys[index(size - 1)];
+    }
+
+    /**
+     * 把 renderTime 时刻的插值位置写入 state
+     * 早于最旧快照时停在最旧快照，晚于最新快照时停在最新快照（不外推）；
+     * 相邻快照距离过大（复活、传送）时直接跳到后一个快照
+     *
+     * @return 是否仍在两个快照之间移动
+     */
+    public boolean sample(long renderTime, AnimationXyState state) {
+        if (size == 0) {
+            return false;
+        }
+        int oldest = index(0);
+        if (size == 1 || renderTime <= times[oldest]) {
+            apply(state, oldest);
+            return size > 1;
+        }
+        int newest = index(size - 1);
+        if (renderTime >= times[newest]) {
+            apply(state, newest);
+            return false;
+        }
+        for (int i = 1; i < size; i++) {
+            int to = index(i);
+            if (renderTime < times[to]) {
+                int from = index(i - 1);
+                double dx = xs[to] - xs[from];
+                double dy = ys[to] - ys[from];
+                if (dx * dx + dy * dy > GameConstants.INTERPOLATION_SNAP_DISTANCE * GameConstants.INTERPOLATION_SNAP_DISTANCE) {
+                    apply(state, to);
+                    return true;
+                }
+                double t = (renderTime - times[from]) / (double) (times[to] - times[from]);
+                state.setCurrentX(xs[from] + dx * t);
+                state.setCurrentY(ys[from] + dy * t);
+                state.setDirection(directions[from]);
+                return true;
+            }
+        }
+        apply(state, newest);
+        return false;
+    }
+
+    private void apply(AnimationXyState state, int i) {
+        state.setCurrentX(xs[i]);
+        state.setCurrentY(ys[i]);
+        state.setDirection(directions[i]);
+    }
+
+    private void set(int i, long serverTime, double x, double y, Direction direction) {
+        times[i] = serverTime;
+        xs[i] = x;
+        ys[i] = y;
+        directions[i] = direction;
+    }
+
+    private int index(int offset) {
+        return (head + offset) % CAPACITY;
+    }
+}
@@ -9,6 +9,20 @@ public class TankState extends AnimationXyState {
     private boolean showHealthBar = false; // 是否显示血条
     private long healthBarShowStartTime = 0; // 血条显示开始时间
 
+    /**
+     * 恢复初始状态（复用已移除坦克的状态对象时调用）
+     */
+    public void reset() {
+        life = 100;
+        maxLife = 100;
+        isHit = false;
+        hitAnimationStartTime = 0;
+        previousLife = 100;
+        showHealthBar = false;
+        healthBarShowStartTime = 0;
+        isAnimating = false;
+    }
+
     public int getLife() {
         return life;
     }
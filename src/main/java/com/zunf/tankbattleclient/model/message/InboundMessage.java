@@ -1,17 +1,34 @@
 package com.zunf.tankbattleclient.model.message;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.util.Arrays;
+
+/**
+ * 收到的一帧消息
+ * 消息体是接收缓冲区中 [bodyOffset, bodyOffset + bodyLength) 的只读视图，不做拷贝
+ */
 public class InboundMessage {
 
     private int type;
     private byte version;
     private int requestId;
-    private byte[] body;
+    private byte[] bodyArray;
+    private int bodyOffset;
+    private int bodyLength;
 
     public InboundMessage(int type, byte version, int requestId, byte[] body) {
+        this(type, version, requestId, body, 0, body == null ? 0 : body.length);
+    }
+
+    public InboundMessage(int type, byte version, int requestId, byte[] bodyArray, int bodyOffset, int bodyLength) {
         this.type = type;
         this.version = version;
         this.requestId = requestId;
-        this.body = body;
+        this.bodyArray = bodyArray == null ? new byte[0] : bodyArray;
+        this.bodyOffset = bodyOffset;
+        this.bodyLength = bodyLength;
     }
 
     public int getType() {
@@ -22,8 +39,26 @@ public class InboundMessage {
         return version;
     }
 
+    /**
+     * 获取消息体的独立拷贝（兼容旧接口），热路径请使用 getBodyBytes
+     */
     public byte[] getBody() {
-        return body;
+        if (bodyOffset == 0 && bodyLength == bodyArray.length) {
+            return bodyArray;
+        }
+        return Arrays.copyOfRange(bodyArray, bodyOffset, bodyOffset + bodyLength);
+    }
+
+    /**
+     * 消息体的 ByteString 视图，不拷贝；配合开启 aliasing 的 CodedInputStream 解析时，
+     * 解析出的 bytes 字段同样直接引用接收缓冲区
+     */
+    public ByteString getBodyBytes() {
+        return UnsafeByteOperations.unsafeWrap(bodyArray, bodyOffset, bodyLength);
+    }
+
+    public int getBodyLength() {
+        return bodyLength;
     }
 
     public int getRequestId() {
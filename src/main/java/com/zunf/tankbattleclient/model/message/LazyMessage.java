@@ -0,0 +1,105 @@
+package com.zunf.tankbattleclient.model.message;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.protobuf.CommonProto;
+import com.zunf.tankbattleclient.util.Log;
+import com.zunf.tankbattleclient.util.ProtoBufUtil;
+
+/**
+ * 延迟解析的广播消息
+ * 包装收到的 BaseResponse 原始字节：过滤器可以先按字段号窥探 code、payload 中的房间ID等，
+ * 不创建任何 protobuf 对象；只有确实需要时才调用 get() 解析 payload，结果缓存，多个监听器共用一次解析
+ */
+public final class LazyMessage {
+
+    private final ByteString body;
+    private final Parser<? extends MessageLite> parser;
+
+    private ByteString payload;
+    private volatile MessageLite parsed;
+    private volatile boolean parseAttempted = false;
+
+    public LazyMessage(InboundMessage message, Parser<? extends MessageLite> parser) {
+        this.body = message.getBodyBytes();
+        this.parser = parser;
+    }
+
+    /**
+     * 包装已经解析好的 payload（如合并后或由增量还原出的 Tick），状态码视为 0；
+     * 过滤器窥探字段时才把它序列化成字节
+     */
+    public LazyMessage(MessageLite parsed) {
+        this.body = null;
+        this.parser = null;
+        this.parsed = parsed;
+        this.parseAttempted = true;
+    }
+
+    /**
+     * BaseResponse 中的状态码，0 表示成功
+     */
+    public int getCode() {
+        if (body == null) {
+            return 0;
+        }
+        return (int) ProtoBufUtil.peekVarint(body, CommonProto.BaseResponse.CODE_FIELD_NUMBER, 0);
+    }
+
+    /**
+     * BaseResponse 中的 payload 原始字节（与接收缓冲区共享内存），没有 payload 时为空
+     */
+    public ByteString getPayloadBytes() {
+        ByteString p = payload;
+        if (p == null && body == null) {
+            payload = p = parsed.toByteString();
+        } else if (p == null) {
+            p = ProtoBufUtil.peekBytes(body, CommonProto.BaseResponse.PAYLOAD_BYTES_FIELD_NUMBER);
+            payload = p = p == null ? ByteString.EMPTY : p;
+        }
+        return p;
+    }
+
+    /**
+     * 不解析 payload，直接窥探其顶层 varint 字段（如 roomId、playerId）
+     */
+    public long peekPayloadVarint(int fieldNumber, long def) {
+        return ProtoBufUtil.peekVarint(getPayloadBytes(), fieldNumber, def);
+    }
+
+    /**
+     * 解析 payload，只在第一次调用时真正解析
+     *
+     * @return 解析结果；状态码非 0 或解析失败时返回 null
+     */
+    public MessageLite get() {
+        if (!parseAttempted) {
+            synchronized (this) {
+                if (!parseAttempted) {
+                    parsed = parse();
+                    parseAttempted = true;
+                }
+            }
+        }
+        return parsed;
+    }
+
+    private MessageLite parse() {
+        int code = getCode();
+        if (code != 0) {
+            Log.debug(LogCategory.DISPATCH, "请求失败：code={}", code);
+            return null;
+        }
+        if (parser == null) {
+            return null;
+        }
+        try {
+            return ProtoBufUtil.parseAliased(getPayloadBytes(), parser);
+        } catch (Exception e) {
+            Log.error(LogCategory.DISPATCH, "解析消息体失败: code={}", getCode(), e);
+            return null;
+        }
+    }
+}
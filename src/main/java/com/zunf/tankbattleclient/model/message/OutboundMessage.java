@@ -1,13 +1,19 @@
 package com.zunf.tankbattleclient.model.message;
 
+import com.google.protobuf.MessageLite;
+
+/**
+ * 待发送的一帧消息
+ * 消息体保持为 protobuf 对象，由写线程直接序列化进发送缓冲区，不提前 toByteArray
+ */
 public class OutboundMessage {
 
     private int type;
     private byte version;
     private int requestId;
-    private byte[] body;
+    private MessageLite body;
 
-    public OutboundMessage(int type, byte version, int requestId, byte[] body) {
+    public OutboundMessage(int type, byte version, int requestId, MessageLite body) {
         this.type = type;
         this.version = version;
         this.requestId = requestId;
@@ -22,7 +28,7 @@ public class OutboundMessage {
         return version;
     }
 
-    public byte[] getBody() {
+    public MessageLite getBody() {
         return body;
     }
 
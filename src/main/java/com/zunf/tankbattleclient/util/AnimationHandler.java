@@ -1,11 +1,12 @@
 package com.zunf.tankbattleclient.util;
 
 import com.zunf.tankbattleclient.constant.GameConstants;
+import com.zunf.tankbattleclient.handler.BulletSimulator;
+import com.zunf.tankbattleclient.handler.EntityStore;
 import com.zunf.tankbattleclient.model.bo.AnimationXyState;
 import com.zunf.tankbattleclient.model.bo.BulletState;
 import com.zunf.tankbattleclient.model.bo.TankState;
 
-import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -15,40 +16,26 @@ import java.util.Map;
 public class AnimationHandler {
 
     /**
-     * 处理动画状态更新（移动动画）
+     * 处理动画状态更新（移动动画）：按渲染时刻在前后两个服务端快照之间插值
      */
-    public static void handleAnimationState(AnimationXyState state, double speed) {
-        double dx = state.getTargetX() - state.getCurrentX();
-        double dy = state.getTargetY() - state.getCurrentY();
-        double distance = Math.sqrt(dx * dx + dy * dy);
-
-        if (distance < speed) {
-            // 到达目标位置
-            state.setCurrentX(state.getTargetX());
-            state.setCurrentY(state.getTargetY());
-            state.setAnimating(false);
-        } else {
-            // 继续移动
-            double moveX = (dx / distance) * speed;
-            double moveY = (dy / distance) * speed;
-            state.setCurrentX(state.getCurrentX() + moveX);
-            state.setCurrentY(state.getCurrentY() + moveY);
-        }
+    public static void handleAnimationState(AnimationXyState state, long renderTime) {
+        state.setAnimating(state.getSnapshots().sample(renderTime, state));
     }
 
     /**
      * 更新所有坦克动画
      */
-    public static void updateTankAnimations(Collection<TankState> tanks) {
-        for (TankState state : tanks) {
+    public static void updateTankAnimations(EntityStore<TankState> tanks, long renderTime, long nowMs) {
+        for (int i = 0; i < tanks.size(); i++) {
+            TankState state = tanks.get(i);
+            state.storePrevious();
+
             // 更新移动动画
-            if (state.isAnimating()) {
-                handleAnimationState(state, GameConstants.TANK_ANIMATION_SPEED);
-            }
+            handleAnimationState(state, renderTime);
 
             // 更新受击动画
             if (state.isHit()) {
-                long elapsed = System.currentTimeMillis() - state.getHitAnimationStartTime();
+                long elapsed = nowMs - state.getHitAnimationStartTime();
                 if (elapsed > GameConstants.HIT_ANIMATION_DURATION) {
                     state.setHit(false);
                 }
@@ -56,7 +43,7 @@ public class AnimationHandler {
 
             // 更新血条显示状态
             if (state.isShowHealthBar()) {
-                long elapsed = System.currentTimeMillis() - state.getHealthBarShowStartTime();
+                long elapsed = nowMs - state.getHealthBarShowStartTime();
                 if (elapsed > GameConstants.HEALTH_BAR_DISPLAY_DURATION) {
                     state.setShowHealthBar(false);
                 }
@@ -86,11 +73,21 @@ public class AnimationHandler {
 
     /**
      * 更新所有子弹动画
+     *
+     * @param simulator 子弹本地推算，为 null 时只做快照插值
      */
-    public static void updateBulletAnimations(Collection<BulletState> bullets) {
-        for (BulletState state : bullets) {
-            if (state.isAnimating()) {
-                handleAnimationState(state, GameConstants.BULLET_ANIMATION_SPEED);
+    public static void updateBulletAnimations(EntityStore<BulletState> bullets, long renderTime,
+                                              BulletSimulator simulator) {
+        for (int i = 0; i < bullets.size(); i++) {
+            BulletState state = bullets.get(i);
+            state.storePrevious();
+            if (state.isExpired()) {
+                continue;
+            }
+            if (simulator == null) {
+                handleAnimationState(state, renderTime);
+            } else {
+                simulator.update(state, renderTime);
             }
         }
     }
@@ -98,10 +95,9 @@ public class AnimationHandler {
     /**
      * 清理过期的砖块摧毁动画
      */
-    public static void cleanupBrickAnimations(Map<String, Long> destroyedBrickAnimations) {
-        long currentTime = System.currentTimeMillis();
+    public static void cleanupBrickAnimations(Map<String, Long> destroyedBrickAnimations, long nowMs) {
         destroyedBrickAnimations.entrySet().removeIf(entry ->
-                currentTime - entry.getValue() > GameConstants.BRICK_DESTROY_ANIMATION_DURATION
+                nowMs - entry.getValue() > GameConstants.BRICK_DESTROY_ANIMATION_DURATION
         );
     }
 }
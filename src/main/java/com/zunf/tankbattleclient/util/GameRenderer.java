@@ -1,11 +1,10 @@
 package com.zunf.tankbattleclient.util;
 
-import com.google.protobuf.ByteString;
 import com.zunf.tankbattleclient.constant.GameConstants;
 import com.zunf.tankbattleclient.enums.Direction;
 import com.zunf.tankbattleclient.enums.MapIndex;
+import com.zunf.tankbattleclient.model.bo.GameMap;
 import com.zunf.tankbattleclient.model.bo.TankState;
-import com.zunf.tankbattleclient.protobuf.game.room.GameRoomProto;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
@@ -34,21 +33,18 @@ public class GameRenderer {
     /**
      * 渲染地图背景
      */
-    public static void renderMapBackground(GraphicsContext gc, GameRoomProto.StartNotice gameData,
-                                           Map<String, Long> destroyedBrickAnimations) {
-        if (gameData == null || gameData.getMapDataCount() == 0) {
+    public static void renderMapBackground(GraphicsContext gc, GameMap gameMap,
+                                           Map<String, Long> destroyedBrickAnimations, long nowMs) {
+        if (gameMap == null || gameMap.isEmpty()) {
             return;
         }
 
-        int mapHeight = gameData.getMapDataCount();
-        int mapWidth = gameData.getMapData(0).size();
+        int mapHeight = gameMap.getHeight();
+        int mapWidth = gameMap.getWidth();
 
-        for (int row = 0; row < mapHeight && row < GameConstants.MAP_SIZE; row++) {
-            ByteString rowData = gameData.getMapData(row);
-            byte[] rowBytes = rowData.toByteArray();
-
-            for (int col = 0; col < rowBytes.length && col < mapWidth && col < GameConstants.MAP_SIZE; col++) {
-                byte cellType = rowBytes[col];
+        for (int row = 0; row < mapHeight; row++) {
+            for (int col = 0; col < mapWidth; col++) {
+                byte cellType = gameMap.get(row, col);
                 double x = col * GameConstants.CELL_SIZE;
                 double y = row * GameConstants.CELL_SIZE;
 
@@ -57,7 +53,7 @@ public class GameRenderer {
 
                 // 如果正在播放摧毁动画，显示动画效果
                 if (isDestroying) {
-                    long elapsed = System.currentTimeMillis() - destroyedBrickAnimations.get(key);
+                    long elapsed = nowMs - destroyedBrickAnimations.get(key);
                     double progress = Math.min(elapsed / (double) GameConstants.BRICK_DESTROY_ANIMATION_DURATION, 1.0);
 
                     // 摧毁动画：闪烁和缩放效果
@@ -101,12 +97,12 @@ public class GameRenderer {
      * 在指定位置渲染坦克
      */
     public static void renderTank(GraphicsContext gc, double x, double y, Direction direction, TankState state,
-                                  boolean isMyTank) {
+                                  boolean isMyTank, long nowMs) {
         // 受击动画效果
         boolean isHit = state != null && state.isHit();
         if (isHit) {
             // 受击时闪烁效果
-            long elapsed = System.currentTimeMillis() - state.getHitAnimationStartTime();
+            long elapsed = nowMs - state.getHitAnimationStartTime();
             double alpha = 0.5 + 0.5 * Math.sin(elapsed / 50.0); // 闪烁效果
             gc.setGlobalAlpha(alpha);
         }
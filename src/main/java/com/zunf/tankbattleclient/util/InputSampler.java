@@ -0,0 +1,147 @@
+package com.zunf.tankbattleclient.util;
+
+import com.zunf.tankbattleclient.enums.Direction;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.input.KeyCode;
+import javafx.util.Duration;
+
+import java.util.Set;
+
+/**
+ * 输入采样器
+ * 只在按键状态变化时发送一次移动状态（方向 + 是否按住），每次变化递增输入序号；
+ * 按住期间按 keepAliveMs 重发当前状态（沿用该次移动的序号），服务端据此保持移动，断流时可以超时停下
+ * 所有方法都在 UI 线程中调用
+ */
+public class InputSampler {
+
+    /**
+     * 发送移动状态
+     */
+    @FunctionalInterface
+    public interface MoveSender {
+        void send(Direction direction, boolean pressed, int inputSeq);
+    }
+
+    private final Set<KeyCode> pressedKeys;
+    private final MoveSender moveSender;
+    private final long keepAliveMs;
+
+    private Timeline keepAliveTimeline;
+
+    /**
+     * 输入序号，移动状态每变化一次、每次射击都加一
+     */
+    private int inputSeq = 0;
+
+    // 最近一次发出的移动状态及其序号（射击也会推进 inputSeq，保活重发必须用移动自己的序号）
+    private Direction lastDirection;
+    private boolean lastPressed = false;
+    private int lastMoveSeq = 0;
+
+    public InputSampler(Set<KeyCode> pressedKeys, long keepAliveMs, MoveSender moveSender) {
+        this.pressedKeys = pressedKeys;
+        this.keepAliveMs = keepAliveMs;
+        this.moveSender = moveSender;
+    }
+
+    /**
+     * 按键集合变化后调用：移动状态有变化才发送
+     */
+    public void onKeysChanged() {
+        Direction direction = getPriorityDirection();
+        boolean pressed = direction != null;
+        if (pressed == lastPressed && (!pressed || direction == lastDirection)) {
+            return;
+        }
+        if (pressed) {
+            lastDirection = direction;
+        }
+        lastPressed = pressed;
+        lastMoveSeq = ++inputSeq;
+        moveSender.send(lastDirection, pressed, lastMoveSeq);
+
+        if (pressed) {
+            startKeepAlive();
+        } else {
+            stopKeepAlive();
+        }
+    }
+
+    /**
+     * 重新发送当前按键状态（用新序号），用于断线重连后让服务端与本地按键同步
+     */
+    public void resend() {
+        Direction direction = getPriorityDirection();
+        boolean pressed = direction != null;
+        if (pressed) {
+            lastDirection = direction;
+        }
+        lastPressed = pressed;
+        if (lastDirection == null) {
+            return;
+        }
+        lastMoveSeq = ++inputSeq;
+        moveSender.send(lastDirection, pressed, lastMoveSeq);
+
+        if (pressed) {
+            startKeepAlive();
+        } else {
+            stopKeepAlive();
+        }
+    }
+
+    /**
+     * 为其他输入（如射击）分配下一个序号
+     */
+    public int nextInputSeq() {
+        return ++inputSeq;
+    }
+
+    /**
+     * 停止采样（离开对局或禁用输入时调用）
+     */
+    public void stop() {
+        stopKeepAlive();
+        lastPressed = false;
+        lastDirection = null;
+    }
+
+    private void startKeepAlive() {
+        if (keepAliveTimeline != null || keepAliveMs <= 0) {
+            return;
+        }
+        keepAliveTimeline = new Timeline(new KeyFrame(Duration.millis(keepAliveMs), e -> {
+            if (lastPressed) {
+                moveSender.send(lastDirection, true, lastMoveSeq);
+            }
+        }));
+        keepAliveTimeline.setCycleCount(Animation.INDEFINITE);
+        keepAliveTimeline.play();
+    }
+
+    private void stopKeepAlive() {
+        if (keepAliveTimeline != null) {
+            keepAliveTimeline.stop();
+            keepAliveTimeline = null;
+        }
+    }
+
+    /**
+     * 获取优先级最高的移动键对应的方向（W > S > A > D），没有按下移动键返回 null
+     */
+    private Direction getPriorityDirection() {
+        if (pressedKeys.contains(KeyCode.W)) {
+            return Direction.UP;
+        } else if (pressedKeys.contains(KeyCode.S)) {
+            return Direction.DOWN;
+        } else if (pressedKeys.contains(KeyCode.A)) {
+            return Direction.LEFT;
+        } else if (pressedKeys.contains(KeyCode.D)) {
+            return Direction.RIGHT;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,176 @@
+package com.zunf.tankbattleclient.util;
+
+import com.zunf.tankbattleclient.enums.LogCategory;
+import com.zunf.tankbattleclient.enums.LogLevel;
+import com.zunf.tankbattleclient.handler.LogRateLimiter;
+import com.zunf.tankbattleclient.manager.ConfigManager;
+import com.zunf.tankbattleclient.manager.LogManager;
+import com.zunf.tankbattleclient.model.bo.LogEvent;
+
+/**
+ * 日志工具
+ * 级别未开启时只做一次数组比较，不拼接字符串、不分配对象；开启后模板和参数原样交给 LogManager 的后台线程格式化。
+ * 模板中的 {} 按顺序替换为参数，最后一个参数是 Throwable 且没有对应占位符时作为异常输出堆栈。
+ * 参数会在后台线程中才转成字符串，调用方只应传入不可变对象或基本类型
+ */
+public final class Log {
+
+    /**
+     * 每个分类开启的最低级别序号，按 LogCategory 序号索引
+     */
+    private static volatile int[] thresholds = loadThresholds();
+
+    private Log() {
+    }
+
+    private static int[] loadThresholds() {
+        ConfigManager config = ConfigManager.getInstance();
+        LogCategory[] categories = LogCategory.values();
+        int[] result = new int[categories.length];
+        for (LogCategory category : categories) {
+            result[category.ordinal()] = config.getLogLevel(category).ordinal();
+        }
+        return result;
+    }
+
+    /**
+     * 运行时调整某个分类的级别
+     */
+    public static synchronized void setLevel(LogCategory category, LogLevel level) {
+        int[] next = thresholds.clone();
+        next[category.ordinal()] = level.ordinal();
+        thresholds = next;
+    }
+
+    public static boolean isEnabled(LogCategory category, LogLevel level) {
+        return level.ordinal() >= thresholds[category.ordinal()] && level != LogLevel.OFF;
+    }
+
+    public static boolean isDebugEnabled(LogCategory category) {
+        return isEnabled(category, LogLevel.DEBUG);
+    }
+
+    public static void trace(LogCategory category, String message) {
+        if (isEnabled(category, LogLevel.TRACE)) {
+            emit(LogLevel.TRACE, category, message, null);
+        }
+    }
+
+    public static void trace(LogCategory category, String template, Object arg) {
+        if (isEnabled(category, LogLevel.TRACE)) {
+            emit(LogLevel.TRACE, category, template, new Object[]{arg});
+        }
+    }
+
+    public static void debug(LogCategory category, String message) {
+        if (isEnabled(category, LogLevel.DEBUG)) {
+            emit(LogLevel.DEBUG, category, message, null);
+        }
+    }
+
+    public static void debug(LogCategory category, String template, Object arg) {
+        if (isEnabled(category, LogLevel.DEBUG)) {
+            emit(LogLevel.DEBUG, category, template, new Object[]{arg});
+        }
+    }
+
+    public static void debug(LogCategory category, String template, Object arg1, Object arg2) {
+        if (isEnabled(category, LogLevel.DEBUG)) {
+            emit(LogLevel.DEBUG, category, template, new Object[]{arg1, arg2});
+        }
+    }
+
+    public static void debug(LogCategory category, String template, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(category, LogLevel.DEBUG)) {
+            emit(LogLevel.DEBUG, category, template, new Object[]{arg1, arg2, arg3});
+        }
+    }
+
+    public static void info(LogCategory category, String message) {
+        if (isEnabled(category, LogLevel.INFO)) {
+            emit(LogLevel.INFO, category, message, null);
+        }
+    }
+
+    public static void info(LogCategory category, String template, Object arg) {
+        if (isEnabled(category, LogLevel.INFO)) {
+            emit(LogLevel.INFO, category, template, new Object[]{arg});
+        }
+    }
+
+    public static void info(LogCategory category, String template, Object arg1, Object arg2) {
+        if (isEnabled(category, LogLevel.INFO)) {
+            emit(LogLevel.INFO, category, template, new Object[]{arg1, arg2});
+        }
+    }
+
+    public static void warn(LogCategory category, String message) {
+        if (isEnabled(category, LogLevel.WARN)) {
+            emit(LogLevel.WARN, category, message, null);
+        }
+    }
+
+    public static void warn(LogCategory category, String template, Object arg) {
+        if (isEnabled(category, LogLevel.WARN)) {
+            emit(LogLevel.WARN, category, template, new Object[]{arg});
+        }
+    }
+
+    public static void warn(LogCategory category, String template, Object arg1, Object arg2) {
+        if (isEnabled(category, LogLevel.WARN)) {
+            emit(LogLevel.WARN, category, template, new Object[]{arg1, arg2});
+        }
+    }
+
+    public static void error(LogCategory category, String message) {
+        if (isEnabled(category, LogLevel.ERROR)) {
+            emit(LogLevel.ERROR, category, message, null);
+        }
+    }
+
+    public static void error(LogCategory category, String template, Object arg) {
+        if (isEnabled(category, LogLevel.ERROR)) {
+            emit(LogLevel.ERROR, category, template, new Object[]{arg});
+        }
+    }
+
+    public static void error(LogCategory category, String template, Object arg1, Object arg2) {
+        if (isEnabled(category, LogLevel.ERROR)) {
+            emit(LogLevel.ERROR, category, template, new Object[]{arg1, arg2});
+        }
+    }
+
+    /**
+     * 采样输出高频日志：级别开启且限流器放行时才提交，被抑制的条数附在这条日志后面
+     */
+    public static void sampled(LogRateLimiter limiter, LogLevel level, LogCategory category,
+                               String template, Object arg1, Object arg2) {
+        if (!isEnabled(category, level) || !limiter.tryAcquire()) {
+            return;
+        }
+        long suppressed = limiter.takeSuppressed();
+        if (suppressed > 0) {
+            template = template + "（期间抑制 " + suppressed + " 条）";
+        }
+        emit(level, category, template, new Object[]{arg1, arg2});
+    }
+
+    private static void emit(LogLevel level, LogCategory category, String template, Object[] args) {
+        Throwable error = null;
+        if (args != null && args[args.length - 1] instanceof Throwable t && placeholders(template) < args.length) {
+            error = t;
+        }
+        LogManager.getInstance().append(new LogEvent(System.currentTimeMillis(), level, category,
+                Thread.currentThread().getName(), template, args, error));
+    }
+
+    private static int placeholders(String template) {
+        int count = 0;
+        int at = 0;
+        while ((at = template.indexOf("{}", at)) >= 0) {
+            count++;
+            at += 2;
+        }
+        return count;
+    }
+}
@@ -1,8 +1,12 @@
 package com.zunf.tankbattleclient.util;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.MessageLite;
 import com.google.protobuf.Parser;
+import com.google.protobuf.WireFormat;
+import com.zunf.tankbattleclient.enums.LogCategory;
 import com.zunf.tankbattleclient.exception.BusinessException;
 import com.zunf.tankbattleclient.exception.ErrorCode;
 import com.zunf.tankbattleclient.protobuf.CommonProto;
@@ -11,27 +15,92 @@ public class ProtoBufUtil {
 
     public static <T extends MessageLite> T parseRespBody(CommonProto.BaseResponse baseResponse, Class<T> clazz) {
         if (baseResponse.getCode() != 0) {
-            System.out.println("请求失败：" + baseResponse.getMessage());
+            Log.debug(LogCategory.DISPATCH, "请求失败：{}", baseResponse.getMessage());
             throw new BusinessException(ErrorCode.BAD_REQUEST);
         }
         try {
             return (T) clazz.getMethod("parseFrom", ByteString.class).invoke(null, baseResponse.getPayloadBytes());
         } catch (Exception e) {
-            e.printStackTrace();
+            Log.error(LogCategory.DISPATCH, "解析响应体失败", e);
             throw new BusinessException(ErrorCode.UNKNOWN_ERROR);
         }
     }
 
     public static <T extends MessageLite> T parseRespBody(CommonProto.BaseResponse baseResponse, Parser<T> parser) {
         if (baseResponse.getCode() != 0) {
-            System.out.println("请求失败：" + baseResponse.getMessage());
+            Log.debug(LogCategory.DISPATCH, "请求失败：{}", baseResponse.getMessage());
             return null;
         }
         try {
-            return parser.parseFrom(baseResponse.getPayloadBytes());
+            return parseAliased(baseResponse.getPayloadBytes(), parser);
         } catch (Exception e) {
-            e.printStackTrace();
+            Log.error(LogCategory.DISPATCH, "解析响应体失败", e);
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 开启 aliasing 解析：解析出的 bytes / ByteString 字段直接引用 data 的底层数组，不再拷贝
+     * 要求 data 的底层数组在消息使用期间不被修改（接收缓冲区满足该约束）
+     */
+    public static <T extends MessageLite> T parseAliased(ByteString data, Parser<T> parser)
+            throws InvalidProtocolBufferException {
+        CodedInputStream in = data.newCodedInput();
+        in.enableAliasing(true);
+        return parser.parseFrom(in);
+    }
+
+    /**
+     * 不解析整个消息，只扫描顶层字段，取出第一个 fieldNumber 的 varint 值（int32/int64/bool/enum）
+     * 用于在解析前按房间ID、玩家ID等过滤消息
+     *
+     * @return 字段值，字段不存在或数据不合法时返回 def
+     */
+    public static long peekVarint(ByteString data, int fieldNumber, long def) {
+        try {
+            CodedInputStream in = data.newCodedInput();
+            for (;;) {
+                int tag = in.readTag();
+                if (tag == 0) {
+                    return def;
+                }
+                if (WireFormat.getTagFieldNumber(tag) == fieldNumber
+                        && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_VARINT) {
+                    return in.readRawVarint64();
+                }
+                if (!in.skipField(tag)) {
+                    return def;
+                }
+            }
+        } catch (Exception e) {
+            return def;
+        }
+    }
+
+    /**
+     * 只扫描顶层字段，取出第一个 fieldNumber 的 bytes 字段，返回值与 data 共享内存
+     *
+     * @return 字段内容，字段不存在或数据不合法时返回 null
+     */
+    public static ByteString peekBytes(ByteString data, int fieldNumber) {
+        try {
+            CodedInputStream in = data.newCodedInput();
+            in.enableAliasing(true);
+            for (;;) {
+                int tag = in.readTag();
+                if (tag == 0) {
+                    return null;
+                }
+                if (WireFormat.getTagFieldNumber(tag) == fieldNumber
+                        && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                    return in.readBytes();
+                }
+                if (!in.skipField(tag)) {
+                    return null;
+                }
+            }
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.zunf.tankbattleclient.util;
 
-import java.io.IOException;
-import java.util.zip.CRC32;
+import com.zunf.tankbattleclient.enums.ChecksumType;
+
+import java.util.zip.Checksum;
 
 import static com.zunf.tankbattleclient.constant.ProtocolConstant.*;
 
@@ -11,6 +12,7 @@ public class ProtocolUtil {
     /**
      * 校验某一帧：packet[off .. off+frameSize)
      * 要求 frameSize == HEADER_TOTAL_LENGTH + bodyLength
+     * 校验算法由该帧协议头中的版本号决定
      */
     public static boolean verify(byte[] packet, int off, int frameSize) {
         if (packet == null) return false;
@@ -22,9 +24,11 @@ public class ProtocolUtil {
         if (frameSize != HEADER_TOTAL_LENGTH + bodyLength) return false;
 
         int expectedCrc = ByteArrUtil.readInt(packet, off + CRC32_FIELD_OFFSET);
+        ChecksumType type = ChecksumType.ofOrDefault(packet[off + VERSION_FIELD_OFFSET] & 0xFF);
 
         // 计算范围：头部 [off, off+CRC32_FIELD_OFFSET) + body [off+HEADER_TOTAL_LENGTH, off+HEADER_TOTAL_LENGTH+bodyLength)
-        int actualCrc = crc32TwoParts(
+        int actualCrc = checksumTwoParts(
+                type,
                 packet,
                 off,                       // part1 start
                 CRC32_FIELD_OFFSET,        // part1 len（不含crc字段本身）
@@ -35,11 +39,15 @@ public class ProtocolUtil {
         return expectedCrc == actualCrc;
     }
 
-    public static int crc32TwoParts(byte[] data, int headerStart, int headerPartLen, int bodyStart, int bodyPartLen) {
-        CRC32 crc32 = new CRC32();
-        crc32.update(data, headerStart, headerPartLen);
-        crc32.update(data, bodyStart, bodyPartLen);
-        return (int) crc32.getValue();
+    /**
+     * 使用指定算法对 头部 + 消息体 两段数据计算校验码，校验实例按线程复用
+     */
+    public static int checksumTwoParts(ChecksumType type, byte[] data, int headerStart, int headerPartLen,
+                                       int bodyStart, int bodyPartLen) {
+        Checksum checksum = type.threadLocalChecksum();
+        checksum.update(data, headerStart, headerPartLen);
+        checksum.update(data, bodyStart, bodyPartLen);
+        return (int) checksum.getValue();
     }
 
 }
@@ -0,0 +1,42 @@
+package com.zunf.tankbattleclient.bench;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * 简易微基准（仓库没有 JMH 依赖）：先预热让 JIT 编译完成，再多轮计时取中位数；
+ * 每轮的返回值累加到 volatile 字段，避免被当成死代码消除
+ */
+final class Bench {
+
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURE_ROUNDS = 15;
+
+    private static volatile long sink;
+
+    private Bench() {
+    }
+
+    /**
+     * @param opsPerRound 每次调用 round 执行的操作数
+     * @param round       执行一轮，返回校验值
+     * @return 每次操作的耗时中位数（纳秒）
+     */
+    static double nsPerOp(int opsPerRound, LongSupplier round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += round.getAsLong();
+        }
+        double[] samples = new double[MEASURE_ROUNDS];
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += round.getAsLong();
+            samples[i] = (double) (System.nanoTime() - start) / opsPerRound;
+        }
+        Arrays.sort(samples);
+        return samples[MEASURE_ROUNDS / 2];
+    }
+
+    static void print(String name, double nsPerOp) {
+        System.out.printf("%-40s %10.2f ns/op%n", name, nsPerOp);
+    }
+}
@@ -0,0 +1,146 @@
+package com.zunf.tankbattleclient.bench;
+
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.zunf.tankbattleclient.enums.GameMsgType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * MsgCallbackEventManager.triggerCallback 的监听器查找：
+ * 原来的 ConcurrentHashMap 回调表（查 Map、判断 Tick 监听、每条消息复制一份回调列表）
+ * 对比现在按 ordinal 索引的 Route[] 分发表（读一个数组槽位，监听器列表是不可变快照）
+ * 两条路径按 MsgCallbackEventManager 改动前后的代码复刻（Route 是私有类型，且真实分发要经过 Platform.runLater），
+ * 回调在当前线程直接执行；不包含两者相同的消息体解析
+ * 运行：mvn -q test-compile 后
+ * java -cp target/classes:target/test-classes:protobuf-java.jar com.zunf.tankbattleclient.bench.DispatchTableBenchmark
+ */
+public final class DispatchTableBenchmark {
+
+    private static final int OPS = 1 << 16;
+
+    public static void main(String[] args) {
+        long[] hits = new long[1];
+        Consumer<MessageLite> listener = m -> hits[0]++;
+        Consumer<Object> tickListener = t -> hits[0]++;
+        // 对局中的典型监听：Tick 两个监听 + 合并 Tick 监听，房间广播各一个
+        List<GameMsgType> listened = List.of(GameMsgType.GAME_TICK, GameMsgType.GAME_TICK_DELTA,
+                GameMsgType.PLAYER_JOIN_ROOM, GameMsgType.PLAYER_LEAVE_ROOM, GameMsgType.GAME_STARTED);
+
+        OldDispatch old = new OldDispatch();
+        NewDispatch table = new NewDispatch();
+        for (GameMsgType type : listened) {
+            old.listen(type, listener);
+            table.listen(type, listener);
+        }
+        old.listen(GameMsgType.GAME_TICK, m -> hits[0]++);
+        table.listen(GameMsgType.GAME_TICK, m -> hits[0]++);
+        old.tickCallbacks.add(tickListener);
+        table.tickListeners.add(tickListener);
+        table.rebuild();
+
+        // 消息分布：大部分是 Tick，其余是各种推送和响应（部分类型没有监听）
+        Random random = new Random(1);
+        GameMsgType[] types = GameMsgType.values();
+        GameMsgType[] messages = new GameMsgType[OPS];
+        for (int i = 0; i < OPS; i++) {
+            messages[i] = random.nextInt(4) > 0 ? GameMsgType.GAME_TICK : types[random.nextInt(types.length)];
+        }
+
+        Bench.print("分发查找 ConcurrentHashMap + 复制", Bench.nsPerOp(OPS, () -> {
+            for (GameMsgType type : messages) {
+                old.trigger(type);
+            }
+            return hits[0];
+        }));
+        Bench.print("分发查找 Route[ordinal]", Bench.nsPerOp(OPS, () -> {
+            for (GameMsgType type : messages) {
+                table.trigger(type);
+            }
+            return hits[0];
+        }));
+    }
+
+    /**
+     * 改动前：Map 查找 + Tick 监听判断 + 每条消息复制回调列表
+     */
+    private static final class OldDispatch {
+        final Map<GameMsgType, CopyOnWriteArrayList<Consumer<MessageLite>>> responseCallbacks = new ConcurrentHashMap<>();
+        final CopyOnWriteArrayList<Consumer<Object>> tickCallbacks = new CopyOnWriteArrayList<>();
+
+        void listen(GameMsgType type, Consumer<MessageLite> callback) {
+            responseCallbacks.computeIfAbsent(type, k -> new CopyOnWriteArrayList<>()).addIfAbsent(callback);
+        }
+
+        void trigger(GameMsgType msgType) {
+            List<Consumer<MessageLite>> callbacks = responseCallbacks.get(msgType);
+            boolean isTick = msgType == GameMsgType.GAME_TICK;
+            if ((callbacks == null || callbacks.isEmpty()) && !(isTick && !tickCallbacks.isEmpty())) {
+                return;
+            }
+            Parser<? extends MessageLite> parser = msgType.getParser();
+            if (isTick) {
+                for (Consumer<Object> callback : tickCallbacks) {
+                    callback.accept(parser);
+                }
+            }
+            List<Consumer<MessageLite>> callbacksCopy = new CopyOnWriteArrayList<>(callbacks);
+            for (Consumer<MessageLite> callback : callbacksCopy) {
+                callback.accept(null);
+            }
+        }
+    }
+
+    /**
+     * 改动后：按 ordinal 读取不可变的 Route
+     */
+    private static final class NewDispatch {
+        record Route(Parser<? extends MessageLite> parser, List<Consumer<MessageLite>> listeners,
+                     List<Consumer<Object>> tickListeners, boolean coalesce, boolean dropIfNoListener) {
+        }
+
+        final Map<GameMsgType, List<Consumer<MessageLite>>> listeners = new EnumMap<>(GameMsgType.class);
+        final List<Consumer<Object>> tickListeners = new ArrayList<>();
+        volatile Route[] routes;
+
+        void listen(GameMsgType type, Consumer<MessageLite> callback) {
+            listeners.computeIfAbsent(type, k -> new ArrayList<>()).add(callback);
+        }
+
+        void rebuild() {
+            GameMsgType[] types = GameMsgType.values();
+            Route[] table = new Route[types.length];
+            for (GameMsgType type : types) {
+                List<Consumer<MessageLite>> typeListeners = List.copyOf(listeners.getOrDefault(type, List.of()));
+                boolean coalesce = type == GameMsgType.GAME_TICK;
+                List<Consumer<Object>> typeTickListeners = coalesce ? List.copyOf(tickListeners) : List.of();
+                table[type.ordinal()] = new Route(type.getParser(), typeListeners, typeTickListeners, coalesce,
+                        typeListeners.isEmpty() && typeTickListeners.isEmpty());
+            }
+            routes = table;
+        }
+
+        void trigger(GameMsgType msgType) {
+            Route route = routes[msgType.ordinal()];
+            if (route.dropIfNoListener()) {
+                return;
+            }
+            Parser<? extends MessageLite> parser = route.parser();
+            if (route.coalesce()) {
+                for (Consumer<Object> callback : route.tickListeners()) {
+                    callback.accept(parser);
+                }
+            }
+            for (Consumer<MessageLite> callback : route.listeners()) {
+                callback.accept(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.zunf.tankbattleclient.bench;
+
+import com.zunf.tankbattleclient.enums.Direction;
+import com.zunf.tankbattleclient.handler.EntityStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 每个 Tick 的实体处理开销：方向查找（原来的 values()[code] 对比编码索引表），
+ * 以及实体更新：原来的 HashMap computeIfAbsent + removeIf（对每个已有实体在本 Tick 列表里线性查找）
+ * 对比实体存储的 touch + sweep（有无出生/消失监听），每 Tick 约 10% 实体更替；
+ * 结果中的一次操作即处理一个 Tick 的全部实体
+ * 运行：mvn -q test-compile 后
+ * java -cp target/classes:target/test-classes:protobuf-java.jar com.zunf.tankbattleclient.bench.EntityTickBenchmark
+ */
+public final class EntityTickBenchmark {
+
+    private static final int[] TANK_COUNTS = {10, 100, 1000};
+    /**
+     * 每轮模拟的 Tick 数上限；原来的路径是 O(n²)，实体多时按实体数减少 Tick 数，保证每轮耗时相近
+     */
+    private static final int MAX_TICKS = 2000;
+
+    public static void main(String[] args) {
+        for (int tanks : TANK_COUNTS) {
+            int[] directions = new Random(tanks).ints(tanks, 0, 4).toArray();
+            int ops = Math.max(1, 100_000 / tanks);
+
+            Bench.print("Direction values()[code] x" + tanks, Bench.nsPerOp(ops, () -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    for (int code : directions) {
+                        sum += Direction.values()[code].ordinal();
+                    }
+                }
+                return sum;
+            }));
+            Bench.print("Direction.of x" + tanks, Bench.nsPerOp(ops, () -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    for (int code : directions) {
+                        sum += Direction.of(code).ordinal();
+                    }
+                }
+                return sum;
+            }));
+
+            long[][] frames = churn(tanks, Math.min(MAX_TICKS, Math.max(50, 100_000 / tanks)));
+            List<List<Long>> frameLists = new ArrayList<>();
+            for (long[] frame : frames) {
+                frameLists.add(Arrays.stream(frame).boxed().toList());
+            }
+            int ticks = frames.length;
+            Bench.print("HashMap + removeIf x" + tanks, Bench.nsPerOp(ticks, () -> runHashMap(frameLists)));
+            Bench.print("EntityStore 无监听 x" + tanks, Bench.nsPerOp(ticks, () -> run(frames, null)));
+            long[] events = new long[2];
+            Bench.print("EntityStore 出生/消失监听 x" + tanks, Bench.nsPerOp(ticks, () -> run(frames,
+                    new EntityStore.Listener<>() {
+                        @Override
+                        public void onSpawn(long owner, long id, long[] state) {
+                            events[0]++;
+                        }
+
+                        @Override
+                        public void onDespawn(long owner, long id, long[] state) {
+                            events[1]++;
+                        }
+                    })));
+        }
+    }
+
+    /**
+     * 预先生成每个 Tick 出现的实体 id：每 Tick 约 10% 的实体被新 id 替换
+     */
+    private static long[][] churn(int tanks, int ticks) {
+        Random random = new Random(tanks);
+        long[][] frames = new long[ticks][tanks];
+        long nextId = 0;
+        for (int i = 0; i < tanks; i++) {
+            frames[0][i] = nextId++;
+        }
+        for (int t = 1; t < ticks; t++) {
+            for (int i = 0; i < tanks; i++) {
+                frames[t][i] = random.nextInt(10) == 0 ? nextId++ : frames[t - 1][i];
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * 改动前 GameController.updateTanks 的做法：按 key 取或建状态，再删掉本 Tick 列表里没有的
+     */
+    private static long runHashMap(List<List<Long>> frames) {
+        Map<Long, long[]> tanks = new HashMap<>();
+        long sum = 0;
+        for (List<Long> frame : frames) {
+            for (Long id : frame) {
+                tanks.computeIfAbsent(id, k -> new long[1])[0] = id;
+            }
+            tanks.entrySet().removeIf(entry -> frame.stream().noneMatch(id -> id.longValue() == entry.getKey()));
+            sum += tanks.size();
+        }
+        return sum;
+    }
+
+    private static long run(long[][] frames, EntityStore.Listener<long[]> listener) {
+        EntityStore<long[]> store = new EntityStore<>(frames[0].length, () -> new long[1]);
+        if (listener != null) {
+            store.addListener(listener);
+        }
+        long sum = 0;
+        for (long[] frame : frames) {
+            store.beginGeneration();
+            for (long id : frame) {
+                int index = store.indexOf(1, id);
+                if (index < 0) {
+                    index = store.add(1, id);
+                }
+                store.get(index)[0] = id;
+                store.touch(index);
+            }
+            store.sweep();
+            sum += store.size();
+        }
+        return sum;
+    }
+}
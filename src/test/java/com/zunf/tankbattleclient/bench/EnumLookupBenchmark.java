@@ -0,0 +1,68 @@
+package com.zunf.tankbattleclient.bench;
+
+import com.zunf.tankbattleclient.enums.GameMsgType;
+import com.zunf.tankbattleclient.enums.MapIndex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 对比原来的线性查找（stream 遍历 values()）和现在的按编码索引表
+ * 运行：mvn -q test-compile 后
+ * java -cp target/classes:target/test-classes:protobuf-java.jar com.zunf.tankbattleclient.bench.EnumLookupBenchmark
+ */
+public final class EnumLookupBenchmark {
+
+    private static final int OPS = 1 << 16;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        GameMsgType[] types = GameMsgType.values();
+        int[] codes = new int[OPS];
+        for (int i = 0; i < OPS; i++) {
+            // 大部分是真实流量中的编码，少量是未知编码
+            codes[i] = random.nextInt(20) == 0 ? 30000 + i : types[random.nextInt(types.length)].getCode();
+        }
+        byte[] cells = new byte[OPS];
+        for (int i = 0; i < OPS; i++) {
+            cells[i] = (byte) random.nextInt(MapIndex.values().length);
+        }
+
+        Bench.print("GameMsgType.of 线性查找", Bench.nsPerOp(OPS, () -> {
+            long sum = 0;
+            for (int code : codes) {
+                sum += linearMsgType(code).ordinal();
+            }
+            return sum;
+        }));
+        Bench.print("GameMsgType.of 分段索引表", Bench.nsPerOp(OPS, () -> {
+            long sum = 0;
+            for (int code : codes) {
+                sum += GameMsgType.of(code).ordinal();
+            }
+            return sum;
+        }));
+        Bench.print("MapIndex.of 线性查找", Bench.nsPerOp(OPS, () -> {
+            long sum = 0;
+            for (byte cell : cells) {
+                sum += linearMapIndex(cell).ordinal();
+            }
+            return sum;
+        }));
+        Bench.print("MapIndex.of 索引表", Bench.nsPerOp(OPS, () -> {
+            long sum = 0;
+            for (byte cell : cells) {
+                sum += MapIndex.of(cell).ordinal();
+            }
+            return sum;
+        }));
+    }
+
+    static GameMsgType linearMsgType(int code) {
+        return Arrays.stream(GameMsgType.values()).filter(v -> v.getCode() == code).findFirst().orElse(GameMsgType.UNKNOWN);
+    }
+
+    static MapIndex linearMapIndex(byte code) {
+        return Arrays.stream(MapIndex.values()).filter(c -> c.getCode() == code).findFirst().orElseThrow();
+    }
+}
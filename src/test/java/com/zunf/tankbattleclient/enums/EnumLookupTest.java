@@ -0,0 +1,35 @@
+package com.zunf.tankbattleclient.enums;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EnumLookupTest {
+
+    @Test
+    void gameMsgTypeTableMatchesLinearLookup() {
+        for (int code = -5; code < 30000; code++) {
+            int c = code;
+            GameMsgType expected = Arrays.stream(GameMsgType.values())
+                    .filter(v -> v.getCode() == c).findFirst().orElse(GameMsgType.UNKNOWN);
+            assertSame(expected, GameMsgType.of(code), "code=" + code);
+        }
+    }
+
+    @Test
+    void mapIndexTableMatchesLinearLookup() {
+        for (int code = Byte.MIN_VALUE; code <= Byte.MAX_VALUE; code++) {
+            byte c = (byte) code;
+            MapIndex expected = Arrays.stream(MapIndex.values()).filter(v -> v.getCode() == c).findFirst().orElse(null);
+            if (expected == null) {
+                assertThrows(NoSuchElementException.class, () -> MapIndex.of(c));
+            } else {
+                assertSame(expected, MapIndex.of(c));
+            }
+        }
+    }
+}
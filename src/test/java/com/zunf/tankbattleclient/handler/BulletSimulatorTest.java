@@ -0,0 +1,102 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.google.protobuf.ByteString;
+import com.zunf.tankbattleclient.enums.Direction;
+import com.zunf.tankbattleclient.enums.MapIndex;
+import com.zunf.tankbattleclient.model.bo.BulletState;
+import com.zunf.tankbattleclient.model.bo.GameMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulletSimulatorTest {
+
+    /**
+     * 300 px/s，即 0.3 px/ms
+     */
+    private static final double SPEED = 300;
+
+    private BulletSimulator simulator;
+
+    @BeforeEach
+    void setUp() {
+        // 10x10 地图，第 6 列（x 在 [150, 175)）是一整列墙
+        List<ByteString> rows = new ArrayList<>();
+        for (int row = 0; row < 10; row++) {
+            byte[] cells = new byte[10];
+            cells[6] = MapIndex.WALL.getCode();
+            rows.add(ByteString.copyFrom(cells));
+        }
+        GameMap map = new GameMap();
+        map.load(rows, null, 0);
+        simulator = new BulletSimulator(map.getCollisionGrid(), SPEED, 1000);
+    }
+
+    @Test
+    void interpolatesBetweenSnapshotsAndExtrapolatesPastTheNewest() {
+        BulletState bullet = bulletAt(0, 12);
+        simulator.onSnapshot(bullet, 100, 42, 12, Direction.RIGHT);
+
+        simulator.update(bullet, 50);
+        assertEquals(27, bullet.getCurrentX(), 1e-9);
+
+        simulator.update(bullet, 200);
+        assertEquals(72, bullet.getCurrentX(), 1e-9);
+        assertFalse(bullet.isExpired());
+    }
+
+    @Test
+    void expiresWhenTheExtrapolatedPathEntersAWall() {
+        BulletState bullet = bulletAt(0, 12);
+        simulator.onSnapshot(bullet, 100, 42, 12, Direction.RIGHT);
+
+        simulator.update(bullet, 500);
+        assertTrue(bullet.isExpired());
+        assertEquals(500, bullet.getExpiredAt());
+    }
+
+    @Test
+    void staleSnapshotKeepsTheBulletHidden() {
+        BulletState bullet = bulletAt(0, 12);
+        simulator.onSnapshot(bullet, 100, 42, 12, Direction.RIGHT);
+        simulator.update(bullet, 500);
+
+        // 判定时刻之前的快照与判定不矛盾
+        simulator.onSnapshot(bullet, 400, 132, 12, Direction.RIGHT);
+        assertTrue(bullet.isExpired());
+    }
+
+    @Test
+    void newerSnapshotStillContainingTheBulletRevivesIt() {
+        BulletState bullet = bulletAt(0, 12);
+        simulator.onSnapshot(bullet, 100, 42, 12, Direction.RIGHT);
+        simulator.update(bullet, 500);
+        assertTrue(bullet.isExpired());
+
+        // 服务端在判定时刻之后仍然发来这颗子弹（比如实际速度更慢），以服务端为准恢复显示
+        simulator.onSnapshot(bullet, 550, 140, 12, Direction.RIGHT);
+        assertFalse(bullet.isExpired());
+        assertEquals(140, bullet.getCurrentX(), 1e-9);
+        assertEquals(140, bullet.getRenderX(0), 1e-9);
+
+        simulator.update(bullet, 550);
+        assertFalse(bullet.isExpired());
+        assertEquals(140, bullet.getCurrentX(), 1e-9);
+    }
+
+    private static BulletState bulletAt(long serverTime, double x) {
+        BulletState bullet = new BulletState();
+        bullet.getSnapshots().reset(serverTime, x, 12, Direction.RIGHT);
+        bullet.setCurrentX(x);
+        bullet.setCurrentY(12);
+        bullet.setDirection(Direction.RIGHT);
+        bullet.storePrevious();
+        return bullet;
+    }
+}
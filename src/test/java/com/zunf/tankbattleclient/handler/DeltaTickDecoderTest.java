@@ -0,0 +1,223 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.protobuf.game.match.MatchProto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaTickDecoderTest {
+
+    private static final long ROOM_ID = 7;
+
+    private StubServer server;
+    private DeltaTickDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        server = new StubServer();
+        decoder = new DeltaTickDecoder(4);
+    }
+
+    @Test
+    void fullTickThenAckedDeltasRebuildServerState() {
+        server.putTank(1, 10, 10);
+        server.putTank(2, 50, 50);
+        server.putBullet(1, 1, 0, 0);
+
+        assertMatchesServer(receive(server.nextTick()));
+
+        server.putTank(1, 12, 10);
+        server.putBullet(2, 1, 5, 5);
+        Object delta = server.nextTick();
+        assertTrue(delta instanceof MatchProto.TickDelta);
+        assertMatchesServer(receive(delta));
+
+        server.removeTank(2);
+        server.putBullet(1, 2, 8, 8);
+        assertMatchesServer(receive(server.nextTick()));
+    }
+
+    @Test
+    void sameBulletIdFromDifferentPlayersIsKeptApart() {
+        server.putBullet(1, 1, 0, 0);
+        server.putBullet(2, 1, 100, 100);
+        receive(server.nextTick());
+
+        // 两个玩家的 1 号子弹各自移动，然后只移除玩家 1 的
+        server.putBullet(1, 1, 4, 0);
+        server.putBullet(2, 1, 100, 96);
+        MatchProto.Tick moved = receive(server.nextTick());
+        assertEquals(2, moved.getBulletsCount());
+        assertMatchesServer(moved);
+
+        server.removeBullet(1, 1);
+        MatchProto.Tick removed = receive(server.nextTick());
+        assertEquals(1, removed.getBulletsCount());
+        assertEquals(2, removed.getBullets(0).getPlayerId());
+        assertMatchesServer(removed);
+    }
+
+    @Test
+    void baselineMissRequestsResyncAndRecoversFromFullTick() {
+        server.putTank(1, 10, 10);
+        receive(server.nextTick());
+
+        // 客户端丢了基线（断线重连），服务端仍按旧基线发增量
+        decoder.reset();
+        server.putTank(1, 20, 10);
+        Object delta = server.nextTick();
+        assertTrue(delta instanceof MatchProto.TickDelta);
+        assertNull(receive(delta));
+        assertTrue(server.resyncRequested);
+
+        Object full = server.nextTick();
+        assertTrue(full instanceof MatchProto.Tick);
+        assertMatchesServer(receive(full));
+
+        server.putTank(1, 30, 10);
+        assertMatchesServer(receive(server.nextTick()));
+    }
+
+    @Test
+    void baselineEvictedFromHistoryIsAMiss() {
+        server.putTank(1, 0, 0);
+        receive(server.nextTick());
+        long oldest = server.ackedTimeStamp;
+        for (int i = 1; i <= 4; i++) {
+            server.putTank(1, i, 0);
+            receive(server.nextTick());
+        }
+
+        MatchProto.TickDelta stale = MatchProto.TickDelta.newBuilder()
+                .setRoomId(ROOM_ID)
+                .setTickTimeStamp(server.now + 1)
+                .setBaseTickTimeStamp(oldest)
+                .build();
+        assertNull(decoder.onDelta(stale));
+    }
+
+    @Test
+    void deltaForAnotherRoomIsAMiss() {
+        server.putTank(1, 10, 10);
+        receive(server.nextTick());
+
+        MatchProto.TickDelta other = MatchProto.TickDelta.newBuilder()
+                .setRoomId(ROOM_ID + 1)
+                .setTickTimeStamp(server.now + 1)
+                .setBaseTickTimeStamp(server.ackedTimeStamp)
+                .build();
+        assertNull(decoder.onDelta(other));
+    }
+
+    private void assertMatchesServer(MatchProto.Tick tick) {
+        assertEquals(server.snapshot(), tick);
+    }
+
+    /**
+     * 按 GameConnectionManager.onTick 的流程处理一条服务端消息，并把确认回给桩服务端
+     */
+    private MatchProto.Tick receive(Object message) {
+        MatchProto.Tick tick = message instanceof MatchProto.Tick full
+                ? decoder.onFull(full)
+                : decoder.onDelta((MatchProto.TickDelta) message);
+        MatchProto.TickAck ack = MatchProto.TickAck.newBuilder()
+                .setRoomId(ROOM_ID)
+                .setTickTimeStamp(tick == null ? decoder.latestTimeStamp() : tick.getTickTimeStamp())
+                .setResync(tick == null)
+                .build();
+        server.onAck(ack);
+        return tick;
+    }
+
+    /**
+     * 桩服务端：维护世界状态，以客户端最近确认的 tick 为基线发送增量，没有基线或被要求重同步时发送完整 Tick
+     */
+    private static final class StubServer {
+
+        private final Map<Long, MatchProto.Tank> tanks = new LinkedHashMap<>();
+        private final Map<List<Long>, MatchProto.Bullet> bullets = new LinkedHashMap<>();
+        private final Map<Long, MatchProto.Tick> sent = new HashMap<>();
+        private long now = 1000;
+        private long ackedTimeStamp = 0;
+        private boolean resyncRequested = false;
+
+        void putTank(long playerId, double x, double y) {
+            tanks.put(playerId, MatchProto.Tank.newBuilder().setPlayerId(playerId).setX(x).setY(y).setLife(100).build());
+        }
+
+        void removeTank(long playerId) {
+            tanks.remove(playerId);
+        }
+
+        void putBullet(long playerId, long bulletId, double x, double y) {
+            bullets.put(List.of(playerId, bulletId), MatchProto.Bullet.newBuilder()
+                    .setPlayerId(playerId).setBulletId(bulletId).setX(x).setY(y).build());
+        }
+
+        void removeBullet(long playerId, long bulletId) {
+            bullets.remove(List.of(playerId, bulletId));
+        }
+
+        void onAck(MatchProto.TickAck ack) {
+            resyncRequested = ack.getResync();
+            if (!ack.getResync()) {
+                ackedTimeStamp = ack.getTickTimeStamp();
+            }
+        }
+
+        MatchProto.Tick snapshot() {
+            return MatchProto.Tick.newBuilder()
+                    .setRoomId(ROOM_ID)
+                    .setTickTimeStamp(now)
+                    .addAllTanks(tanks.values())
+                    .addAllBullets(bullets.values())
+                    .build();
+        }
+
+        Object nextTick() {
+            now += 50;
+            MatchProto.Tick current = snapshot();
+            sent.put(now, current);
+            MatchProto.Tick base = resyncRequested ? null : sent.get(ackedTimeStamp);
+            resyncRequested = false;
+            if (base == null) {
+                return current;
+            }
+
+            MatchProto.TickDelta.Builder delta = MatchProto.TickDelta.newBuilder()
+                    .setRoomId(ROOM_ID)
+                    .setTickTimeStamp(now)
+                    .setBaseTickTimeStamp(ackedTimeStamp);
+            Map<Long, MatchProto.Tank> baseTanks = new HashMap<>();
+            base.getTanksList().forEach(t -> baseTanks.put(t.getPlayerId(), t));
+            for (MatchProto.Tank tank : current.getTanksList()) {
+                if (!tank.equals(baseTanks.remove(tank.getPlayerId()))) {
+                    delta.addChangedTanks(tank);
+                }
+            }
+            delta.addAllRemovedTankIds(new ArrayList<>(baseTanks.keySet()));
+
+            Map<List<Long>, MatchProto.Bullet> baseBullets = new HashMap<>();
+            base.getBulletsList().forEach(b -> baseBullets.put(List.of(b.getPlayerId(), b.getBulletId()), b));
+            for (MatchProto.Bullet bullet : current.getBulletsList()) {
+                if (!bullet.equals(baseBullets.remove(List.of(bullet.getPlayerId(), bullet.getBulletId())))) {
+                    delta.addChangedBullets(bullet);
+                }
+            }
+            for (List<Long> key : baseBullets.keySet()) {
+                delta.addRemovedBullets(MatchProto.BulletRef.newBuilder()
+                        .setPlayerId(key.get(0)).setBulletId(key.get(1)));
+            }
+            return delta.build();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.zunf.tankbattleclient.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EntityStoreTest {
+
+    @Test
+    void sweepKeepsOnlyTouchedEntitiesUnderChurn() {
+        EntityStore<long[]> store = new EntityStore<>(4, () -> new long[2]);
+        Random random = new Random(1);
+        Set<List<Long>> live = new HashSet<>();
+        for (int tick = 0; tick < 2000; tick++) {
+            Set<List<Long>> next = new HashSet<>();
+            for (List<Long> key : live) {
+                if (random.nextInt(10) > 0) {
+                    next.add(key);
+                }
+            }
+            for (int n = random.nextInt(40); n > 0; n--) {
+                next.add(List.of((long) random.nextInt(5), (long) random.nextInt(300)));
+            }
+
+            store.beginGeneration();
+            for (List<Long> key : next) {
+                int index = store.indexOf(key.get(0), key.get(1));
+                if (index < 0) {
+                    index = store.add(key.get(0), key.get(1));
+                    store.get(index)[0] = key.get(0);
+                    store.get(index)[1] = key.get(1);
+                } else {
+                    store.touch(index);
+                }
+            }
+            store.sweep();
+            live = next;
+
+            assertEquals(live.size(), store.size());
+            for (List<Long> key : live) {
+                long[] state = store.find(key.get(0), key.get(1));
+                assertNotNull(state);
+                assertEquals(key.get(0), state[0]);
+                assertEquals(key.get(1), state[1]);
+            }
+        }
+    }
+
+    @Test
+    void removedStateObjectsAreReused() {
+        EntityStore<Object> store = new EntityStore<>(4, Object::new);
+        store.beginGeneration();
+        Object first = store.get(store.add(1, 1));
+        store.sweep();
+
+        store.beginGeneration();
+        store.sweep();
+        assertNull(store.find(1, 1));
+
+        store.beginGeneration();
+        assertSame(first, store.get(store.add(2, 2)));
+    }
+
+    @Test
+    void sweepReportsSpawnsAndDespawns() {
+        EntityStore<Object> store = new EntityStore<>(4, Object::new);
+        List<String> events = new ArrayList<>();
+        store.addListener(new EntityStore.Listener<>() {
+            @Override
+            public void onSpawn(long owner, long id, Object state) {
+                events.add("spawn " + owner);
+            }
+
+            @Override
+            public void onDespawn(long owner, long id, Object state) {
+                events.add("despawn " + owner);
+            }
+        });
+
+        store.beginGeneration();
+        store.add(1, 0);
+        store.add(2, 0);
+        store.sweep();
+        assertEquals(Set.of("spawn 1", "spawn 2"), new HashSet<>(events));
+
+        events.clear();
+        store.beginGeneration();
+        store.touch(store.indexOf(1, 0));
+        store.add(3, 0);
+        store.sweep();
+        assertEquals(Set.of("despawn 2", "spawn 3"), new HashSet<>(events));
+
+        events.clear();
+        store.clear();
+        assertEquals(List.of(), events);
+    }
+}
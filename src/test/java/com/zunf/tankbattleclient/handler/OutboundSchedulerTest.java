@@ -0,0 +1,110 @@
+package com.zunf.tankbattleclient.handler;
+
+import com.zunf.tankbattleclient.enums.SendLane;
+import com.zunf.tankbattleclient.model.message.OutboundMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundSchedulerTest {
+
+    private static final int MOVE = 11;
+    private static final int SHOOT = 12;
+    private static final int ACK = 15;
+    private static final int PAGE = 20;
+
+    private final List<OutboundMessage> dropped = new ArrayList<>();
+    private OutboundScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        dropped.clear();
+        scheduler = new OutboundScheduler(4, 4, 2, dropped::add);
+    }
+
+    @Test
+    void coalescesWithTailOnly() {
+        offerInput(MOVE, 1, true);
+        offerInput(MOVE, 2, true);
+        offerInput(SHOOT, 3, false);
+        offerInput(MOVE, 4, true);
+
+        assertEquals(List.of("11#2", "12#3", "11#4"), drain());
+    }
+
+    @Test
+    void fullInputLaneEvictsSupersededMoveInsteadOfShots() {
+        offerInput(MOVE, 1, true);
+        offerInput(SHOOT, 2, false);
+        offerInput(SHOOT, 3, false);
+        offerInput(SHOOT, 4, false);
+
+        // 新的移动状态取代了队首的旧移动状态
+        assertTrue(offerInput(MOVE, 5, true));
+        assertEquals(List.of("11#1"), names(dropped));
+        assertEquals(List.of("12#2", "12#3", "12#4", "11#5"), drain());
+    }
+
+    @Test
+    void fullInputLaneRejectsWhenNothingIsSuperseded() {
+        offerInput(MOVE, 1, true);
+        offerInput(SHOOT, 2, false);
+        offerInput(ACK, 3, true);
+        offerInput(SHOOT, 4, false);
+
+        // 射击不能挤掉任何离散操作，也没有被取代的移动或确认
+        assertFalse(offerInput(SHOOT, 5, false));
+        assertTrue(dropped.isEmpty());
+        assertEquals(List.of("11#1", "12#2", "15#3", "12#4"), drain());
+    }
+
+    @Test
+    void discreteActionMayEvictAMoveSupersededLaterInTheQueue() {
+        offerInput(MOVE, 1, true);
+        offerInput(SHOOT, 2, false);
+        offerInput(MOVE, 3, true);
+        offerInput(SHOOT, 4, false);
+
+        assertTrue(offerInput(SHOOT, 5, false));
+        assertEquals(List.of("11#1"), names(dropped));
+        assertEquals(List.of("12#2", "11#3", "12#4", "12#5"), drain());
+    }
+
+    @Test
+    void bulkLaneDropsOldestAndReportsIt() {
+        scheduler.offer(message(PAGE, 1), SendLane.BULK, false);
+        scheduler.offer(message(PAGE, 2), SendLane.BULK, false);
+        assertTrue(scheduler.offer(message(PAGE, 3), SendLane.BULK, false));
+
+        assertEquals(List.of("20#1"), names(dropped));
+        assertEquals(List.of("20#2", "20#3"), drain());
+    }
+
+    private boolean offerInput(int type, int requestId, boolean coalesce) {
+        return scheduler.offer(message(type, requestId), SendLane.INPUT, coalesce);
+    }
+
+    private List<String> drain() {
+        List<OutboundMessage> out = new ArrayList<>();
+        scheduler.drainTo(out, 100);
+        return names(out);
+    }
+
+    private static OutboundMessage message(int type, int requestId) {
+        return new OutboundMessage(type, (byte) 1, requestId, null);
+    }
+
+    private static List<String> names(List<OutboundMessage> messages) {
+        List<String> names = new ArrayList<>();
+        for (OutboundMessage m : messages) {
+            names.add(m.getType() + "#" + m.getRequestId());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,91 @@
+package com.zunf.tankbattleclient.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SequencedExecutorTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int KEYS = 16;
+    private static final int TASKS_PER_KEY = 2_000;
+
+    @Test
+    void tasksWithTheSameKeyRunInSubmissionOrderUnderConcurrentSubmission() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        // 条带数少于 key 数，不同 key 会共用条带；容量小，提交方会被背压阻塞
+        SequencedExecutor executor = new SequencedExecutor(pool, 5, 64);
+
+        // 每个 key 的执行记录：producer * TASKS_PER_KEY + seq
+        List<List<Integer>> executed = new ArrayList<>();
+        AtomicInteger[] inFlight = new AtomicInteger[KEYS];
+        for (int key = 0; key < KEYS; key++) {
+            executed.add(new ArrayList<>());
+            inFlight[key] = new AtomicInteger();
+        }
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(PRODUCERS * KEYS * TASKS_PER_KEY);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // 各 key 交错提交
+                for (int seq = 0; seq < TASKS_PER_KEY; seq++) {
+                    for (int k = 0; k < KEYS; k++) {
+                        int key = (k + producer * 3) % KEYS;
+                        int record = producer * TASKS_PER_KEY + seq;
+                        executor.execute(key, () -> {
+                            if (inFlight[key].incrementAndGet() != 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            // 同一 key 串行执行，这里不加锁；顺序有问题时后面的断言会发现
+                            executed.get(key).add(record);
+                            inFlight[key].decrementAndGet();
+                            done.countDown();
+                        });
+                    }
+                }
+            });
+            producers.add(t);
+            t.start();
+        }
+        start.countDown();
+        for (Thread t : producers) {
+            t.join();
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS), "tasks did not finish");
+        pool.shutdown();
+
+        assertEquals(0, overlaps.get(), "tasks with the same key ran concurrently");
+        for (int key = 0; key < KEYS; key++) {
+            List<Integer> records = executed.get(key);
+            assertEquals(PRODUCERS * TASKS_PER_KEY, records.size());
+            // 同一提交线程对同一 key 的任务必须按提交顺序执行
+            int[] lastSeq = new int[PRODUCERS];
+            Arrays.fill(lastSeq, -1);
+            for (int record : records) {
+                int producer = record / TASKS_PER_KEY;
+                int seq = record % TASKS_PER_KEY;
+                assertEquals(lastSeq[producer] + 1, seq, "key " + key + " producer " + producer + " out of order");
+                lastSeq[producer] = seq;
+            }
+        }
+    }
+}
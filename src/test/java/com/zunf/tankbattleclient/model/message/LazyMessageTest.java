@@ -0,0 +1,24 @@
+package com.zunf.tankbattleclient.model.message;
+
+import com.zunf.tankbattleclient.handler.MessageFilter;
+import com.zunf.tankbattleclient.protobuf.game.match.MatchProto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyMessageTest {
+
+    @Test
+    void parsedMessageCanBePeekedByFilters() {
+        MatchProto.Tick tick = MatchProto.Tick.newBuilder().setRoomId(42).setTickTimeStamp(1000).build();
+        LazyMessage lazy = new LazyMessage(tick);
+
+        assertEquals(0, lazy.getCode());
+        assertSame(tick, lazy.get());
+        assertTrue(MessageFilter.payloadFieldEquals(MatchProto.Tick.ROOMID_FIELD_NUMBER, 42).test(lazy));
+        assertFalse(MessageFilter.payloadFieldEquals(MatchProto.Tick.ROOMID_FIELD_NUMBER, 43).test(lazy));
+    }
+}